@@ -0,0 +1,84 @@
+/**
+ * The class Accumulator holds the hidden layer of a
+ * Network for a position, seen from both sides. While
+ * it is attached to a position, every piece the position
+ * adds or removes updates it, so making or taking back
+ * a move costs a few vector adds instead of summing the
+ * weights of every piece again. Each search thread has
+ * its own accumulator.
+ */
+public class Accumulator {
+    /** The network whose hidden layer is held. */
+    private final Network network;
+
+    /** The hidden layer seen from white's side and from black's side. */
+    private final int[][] hidden;
+
+    /**
+     * The constructor for the class Accumulator.
+     *
+     * @param network as Network
+     */
+    public Accumulator(Network network) {
+        this.network = network;
+        hidden = new int[2][network.getHiddenSize()];
+    }
+
+    /**
+     * Returns the network of the accumulator.
+     *
+     * @return network
+     */
+    public Network getNetwork() {
+        return network;
+    }
+
+    /**
+     * This method sums the hidden layer again from every
+     * piece of the position.
+     *
+     * @param position as Position
+     */
+    public void refresh(Position position) {
+        for (int[] side : hidden) {
+            System.arraycopy(network.getHiddenBiases(), 0, side, 0, side.length);
+        }
+        for (int square = 0; square < 64; square++) {
+            if (position.pieceAt(square) != Position.EMPTY) {
+                add(position.pieceAt(square), square);
+            }
+        }
+    }
+
+    /**
+     * This method adds a piece on a square.
+     *
+     * @param piece as int
+     * @param square as int
+     */
+    public void add(int piece, int square) {
+        network.update(hidden[Position.WHITE], Network.feature(Position.WHITE, piece, square), 1);
+        network.update(hidden[Position.BLACK], Network.feature(Position.BLACK, piece, square), 1);
+    }
+
+    /**
+     * This method removes a piece from a square.
+     *
+     * @param piece as int
+     * @param square as int
+     */
+    public void remove(int piece, int square) {
+        network.update(hidden[Position.WHITE], Network.feature(Position.WHITE, piece, square), -1);
+        network.update(hidden[Position.BLACK], Network.feature(Position.BLACK, piece, square), -1);
+    }
+
+    /**
+     * Returns the score of the position for the side to move.
+     *
+     * @param sideToMove as int
+     * @return the score
+     */
+    public int evaluate(int sideToMove) {
+        return network.evaluate(hidden[sideToMove], hidden[sideToMove ^ 1]);
+    }
+}
@@ -0,0 +1,392 @@
+/**
+ * The class Attacks computes the squares a piece
+ * attacks as a 64-bit board. Bit 0 is the top left
+ * square of the chess board (position 1) and bit 63
+ * is the bottom right square (position 64). The
+ * moves of knights, kings and pawns are looked up
+ * in tables that are filled in once when the class
+ * is loaded. Rooks and bishops use magic bitboards:
+ * the blockers of a slider are multiplied by a magic
+ * number and shifted to index a table of attacks.
+ * The magic numbers were found ahead of time by a
+ * random search for multipliers without collisions.
+ */
+public final class Attacks {
+    /** The row and column steps of a knight. */
+    private static final int[][] KNIGHT_STEPS = {
+        {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}
+    };
+
+    /** The row and column steps of a king. */
+    private static final int[][] KING_STEPS = {
+        {-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}
+    };
+
+    /** The row and column directions a rook slides in. */
+    private static final int[][] ROOK_DIRECTIONS = {
+        {-1, 0}, {1, 0}, {0, -1}, {0, 1}
+    };
+
+    /** The row and column directions a bishop slides in. */
+    private static final int[][] BISHOP_DIRECTIONS = {
+        {-1, -1}, {-1, 1}, {1, -1}, {1, 1}
+    };
+
+    /** The squares a knight attacks from each square. */
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+
+    /** The squares a king attacks from each square. */
+    private static final long[] KING_ATTACKS = new long[64];
+
+    /** The squares a pawn of each color attacks from each square. */
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    /** The squares a pawn of each color is pushed to from each square. */
+    private static final long[][] PAWN_PUSHES = new long[2][64];
+
+    /** The squares a pawn of each color is pushed to 2 spaces from its starting row. */
+    private static final long[][] PAWN_DOUBLE_PUSHES = new long[2][64];
+
+    /** The squares strictly between two squares on the same row, column or diagonal. */
+    private static final long[][] BETWEEN = new long[64][64];
+
+    /** The whole row, column or diagonal through two squares, or 0 if they are not aligned. */
+    private static final long[][] LINE = new long[64][64];
+
+    /** The squares that can block a rook on each square, without the edges. */
+    private static final long[] ROOK_MASKS = new long[64];
+
+    /** The multipliers that hash the blockers of a rook into its table. */
+    private static final long[] ROOK_MAGICS = {
+        0x2080002080400010L, 0x00C0002001401000L, 0x2100110008402002L,
+        0x0880080081041000L, 0x0200020020041008L, 0x2300040008010012L,
+        0x0C00283004008201L, 0x0180010000407A80L, 0x0168800080400020L,
+        0x0010400040201000L, 0x1001002001001048L, 0x1001002408100100L,
+        0x0801000408010012L, 0x4001000209000400L, 0x08A20004C8020001L,
+        0x2002801145002280L, 0x0080860021004200L, 0x001000C009402002L,
+        0x00B0002004002800L, 0x100A808010020800L, 0x9400808004000800L,
+        0x0090808004000200L, 0x0000040010810208L, 0x2000020000448534L,
+        0x4104400480008033L, 0x0000810100204000L, 0x0440430900200010L,
+        0x4600240900100100L, 0x0804080100110004L, 0x0001000300080400L,
+        0x0004084400011002L, 0x0023040200008041L, 0x0580050043002080L,
+        0x0400804002802008L, 0x0001002001004010L, 0x0080200A02001040L,
+        0x600D480280802400L, 0x400B800201800C00L, 0x2408211004004208L,
+        0x0200211082000844L, 0x0020804010208000L, 0x5030004020104000L,
+        0xA042084080220010L, 0x4088080010008080L, 0x5002080100110004L,
+        0x2012002010040400L, 0x0040318210440008L, 0x0120941040820001L,
+        0x1000800100402100L, 0x0040002010004840L, 0x8108450020001900L,
+        0x0200204008120200L, 0x0080800C00180180L, 0x0885000400420900L,
+        0x230802011008C400L, 0x3801740891432200L, 0x0A00250212024082L,
+        0x0000882040001105L, 0x0042102082000A42L, 0xC401210810000501L,
+        0x0241001002480005L, 0x0081000400880241L, 0x0000009008024124L,
+        0x0048122980410402L
+    };
+
+    /** The shifts that turn a hashed rook blocker set into an index. */
+    private static final int[] ROOK_SHIFTS = new int[64];
+
+    /** The rook attacks for every blocker set on each square. */
+    private static final long[][] ROOK_TABLE = new long[64][];
+
+    /** The squares that can block a bishop on each square, without the edges. */
+    private static final long[] BISHOP_MASKS = new long[64];
+
+    /** The multipliers that hash the blockers of a bishop into its table. */
+    private static final long[] BISHOP_MAGICS = {
+        0x1862221006220044L, 0x2104A14202020060L, 0x2804081220444001L,
+        0x2102408900010001L, 0x0002021000040002L, 0x08C3100805004300L,
+        0x1084040124920050L, 0x8900440043382010L, 0x2401410802140040L,
+        0x0901200454208020L, 0x0000090216020541L, 0x1283844040800804L,
+        0x0521840420000803L, 0x0800010402400C40L, 0x0000408E10100404L,
+        0x0009810048420800L, 0x2004211004286808L, 0x13080A1001380080L,
+        0x0008801004220020L, 0x0024000802480800L, 0x1461001190400401L,
+        0x0020400200500440L, 0x0003000409019000L, 0x000C20820D011802L,
+        0x000804002164100CL, 0x00048400A0011404L, 0x5018110308044100L,
+        0x0048A00804010020L, 0x0007840000802000L, 0x8808A20075004220L,
+        0x8014040000822100L, 0x110C03000E251101L, 0x0081094820202010L,
+        0x0008041000044100L, 0x00C1202808940800L, 0x8108100821040400L,
+        0x1240010010010041L, 0x0810004080011000L, 0x00A20C0401804A00L,
+        0x40014C0020050500L, 0x5805082012042480L, 0x2004022144031000L,
+        0x2082002024204808L, 0x0800004200800800L, 0x0410020204100A02L,
+        0x80C1204080804101L, 0x0010104E01800042L, 0x000800810C400208L,
+        0x100080B008201210L, 0x8000440605112101L, 0x000202008C440040L,
+        0x9004002210442200L, 0x2032014088222045L, 0x0C00202222C20000L,
+        0x0140040820A50100L, 0x0222104C29024018L, 0x0200110121202004L,
+        0x0800104200B00802L, 0x0000401424020801L, 0x4000000004208840L,
+        0x0802E00040104100L, 0x03000020A0424080L, 0x0011C00408188121L,
+        0x0848020822040013L
+    };
+
+    /** The shifts that turn a hashed bishop blocker set into an index. */
+    private static final int[] BISHOP_SHIFTS = new int[64];
+
+    /** The bishop attacks for every blocker set on each square. */
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            int row = square >>> 3;
+
+            KNIGHT_ATTACKS[square] = leaper(square, KNIGHT_STEPS);
+            KING_ATTACKS[square] = leaper(square, KING_STEPS);
+            PAWN_ATTACKS[Position.WHITE][square] = leaper(square, new int[][] {{-1, -1}, {-1, 1}});
+            PAWN_ATTACKS[Position.BLACK][square] = leaper(square, new int[][] {{1, -1}, {1, 1}});
+            PAWN_PUSHES[Position.WHITE][square] = leaper(square, new int[][] {{-1, 0}});
+            PAWN_PUSHES[Position.BLACK][square] = leaper(square, new int[][] {{1, 0}});
+
+            if (row == 6) {
+                PAWN_DOUBLE_PUSHES[Position.WHITE][square] = 1L << (square - 16);
+            }
+            if (row == 1) {
+                PAWN_DOUBLE_PUSHES[Position.BLACK][square] = 1L << (square + 16);
+            }
+
+            ROOK_MASKS[square] = slider(square, 0L, ROOK_DIRECTIONS) & ~edges(square);
+            ROOK_SHIFTS[square] = 64 - Long.bitCount(ROOK_MASKS[square]);
+            ROOK_TABLE[square] = new long[1 << Long.bitCount(ROOK_MASKS[square])];
+            fillTable(square, ROOK_MASKS[square], ROOK_MAGICS[square], ROOK_SHIFTS[square],
+                      ROOK_TABLE[square], ROOK_DIRECTIONS);
+
+            BISHOP_MASKS[square] = slider(square, 0L, BISHOP_DIRECTIONS) & ~edges(square);
+            BISHOP_SHIFTS[square] = 64 - Long.bitCount(BISHOP_MASKS[square]);
+            BISHOP_TABLE[square] = new long[1 << Long.bitCount(BISHOP_MASKS[square])];
+            fillTable(square, BISHOP_MASKS[square], BISHOP_MAGICS[square], BISHOP_SHIFTS[square],
+                      BISHOP_TABLE[square], BISHOP_DIRECTIONS);
+        }
+    }
+
+    static {
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                long bitA = 1L << a;
+                long bitB = 1L << b;
+
+                if (a == b) {
+                    continue;
+                }
+                if ((rook(a, 0L) & bitB) != 0) {
+                    BETWEEN[a][b] = rook(a, bitB) & rook(b, bitA);
+                    LINE[a][b] = (rook(a, 0L) & rook(b, 0L)) | bitA | bitB;
+                } else if ((bishop(a, 0L) & bitB) != 0) {
+                    BETWEEN[a][b] = bishop(a, bitB) & bishop(b, bitA);
+                    LINE[a][b] = (bishop(a, 0L) & bishop(b, 0L)) | bitA | bitB;
+                }
+            }
+        }
+    }
+
+    /** This class only has static methods. */
+    private Attacks() {}
+
+    /**
+     * Returns the squares a knight on the square attacks.
+     *
+     * @param square as int
+     * @return the attacked squares
+     */
+    public static long knight(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    /**
+     * Returns the squares a king on the square attacks.
+     *
+     * @param square as int
+     * @return the attacked squares
+     */
+    public static long king(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * Returns the squares a pawn of the color on the
+     * square attacks. White pawns move up the board
+     * and black pawns move down.
+     *
+     * @param color as int
+     * @param square as int
+     * @return the attacked squares
+     */
+    public static long pawn(int color, int square) {
+        return PAWN_ATTACKS[color][square];
+    }
+
+    /**
+     * Returns the empty squares a pawn of the color on the
+     * square can be pushed to. A pawn on its starting row
+     * can move 2 spaces if both squares are empty.
+     *
+     * @param color as int
+     * @param square as int
+     * @param occupied as long
+     * @return the push squares
+     */
+    public static long pawnPushes(int color, int square, long occupied) {
+        long single = PAWN_PUSHES[color][square] & ~occupied;
+
+        if (single == 0) {
+            return 0L;
+        }
+        return single | (PAWN_DOUBLE_PUSHES[color][square] & ~occupied);
+    }
+
+    /**
+     * Returns the squares a rook on the square attacks,
+     * stopping at and including the first blocker in
+     * each direction.
+     *
+     * @param square as int
+     * @param occupied as long
+     * @return the attacked squares
+     */
+    public static long rook(int square, long occupied) {
+        long blockers = occupied & ROOK_MASKS[square];
+
+        return ROOK_TABLE[square][(int) ((blockers * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    /**
+     * Returns the squares a bishop on the square attacks,
+     * stopping at and including the first blocker in
+     * each direction.
+     *
+     * @param square as int
+     * @param occupied as long
+     * @return the attacked squares
+     */
+    public static long bishop(int square, long occupied) {
+        long blockers = occupied & BISHOP_MASKS[square];
+
+        return BISHOP_TABLE[square][(int) ((blockers * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    /**
+     * Returns the squares a queen on the square attacks.
+     *
+     * @param square as int
+     * @param occupied as long
+     * @return the attacked squares
+     */
+    public static long queen(int square, long occupied) {
+        return rook(square, occupied) | bishop(square, occupied);
+    }
+
+    /**
+     * Returns the squares strictly between two squares on
+     * the same row, column or diagonal, or 0 if they are
+     * not aligned.
+     *
+     * @param a as int
+     * @param b as int
+     * @return the squares between
+     */
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    /**
+     * Returns the whole row, column or diagonal that goes
+     * through two squares, or 0 if they are not aligned.
+     *
+     * @param a as int
+     * @param b as int
+     * @return the squares of the line
+     */
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    /**
+     * Returns the squares reached by taking each step
+     * once from the square without leaving the board.
+     *
+     * @param square as int
+     * @param steps as int[][]
+     * @return the reached squares
+     */
+    private static long leaper(int square, int[][] steps) {
+        int row = square >>> 3;
+        int col = square & 7;
+        long attacks = 0L;
+
+        for (int[] step : steps) {
+            int toRow = row + step[0];
+            int toCol = col + step[1];
+
+            if (toRow >= 0 && toRow < 8 && toCol >= 0 && toCol < 8) {
+                attacks |= 1L << (toRow * 8 + toCol);
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Returns the squares reached by sliding from the square
+     * in each direction until the edge of the board or
+     * an occupied square.
+     *
+     * @param square as int
+     * @param occupied as long
+     * @param directions as int[][]
+     * @return the reached squares
+     */
+    private static long slider(int square, long occupied, int[][] directions) {
+        int row = square >>> 3;
+        int col = square & 7;
+        long attacks = 0L;
+
+        for (int[] direction : directions) {
+            int toRow = row + direction[0];
+            int toCol = col + direction[1];
+
+            while (toRow >= 0 && toRow < 8 && toCol >= 0 && toCol < 8) {
+                long bit = 1L << (toRow * 8 + toCol);
+                attacks |= bit;
+
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                toRow += direction[0];
+                toCol += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Returns the edge squares of the board that are not
+     * on the same row or column as the square. A blocker
+     * on one of these squares never changes a slider's attacks.
+     *
+     * @param square as int
+     * @return the edge squares
+     */
+    private static long edges(int square) {
+        long topAndBottom = 0xFF000000000000FFL & ~(0xFFL << (square & ~7));
+        long leftAndRight = 0x8181818181818181L & ~(0x0101010101010101L << (square & 7));
+
+        return topAndBottom | leftAndRight;
+    }
+
+    /**
+     * This method fills the table of a slider on the square
+     * with its attacks for every subset of the blocker mask,
+     * stored at the index the magic number hashes it to.
+     *
+     * @param square as int
+     * @param mask as long
+     * @param magic as long
+     * @param shift as int
+     * @param table as long[]
+     * @param directions as int[][]
+     */
+    private static void fillTable(int square, long mask, long magic, int shift, long[] table,
+                                  int[][] directions) {
+        long subset = 0L;
+
+        do {
+            table[(int) ((subset * magic) >>> shift)] = slider(square, subset, directions);
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+    }
+}
@@ -0,0 +1,152 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * The class Bench is a command line tool that searches
+ * a fixed set of positions to a fixed depth, once on a
+ * single thread and once on several threads sharing
+ * the transposition table. It prints the time, nodes
+ * and nodes per second of each run and how much faster
+ * the threads reach the depth together. Features of
+ * the search can be switched off to measure what each
+ * one saves. Given a network file, the positions are
+ * searched on one thread with the hand-written
+ * evaluation and then with the network instead, to
+ * compare their speed.
+ *
+ * Usage: java Bench [-depth d] [-threads n] [-hash mb] [-disable feature,...] [-nnue file]
+ */
+public class Bench {
+    /** The positions searched, from the opening to the endgame. */
+    public static final String[] POSITIONS = {
+        Position.START_FEN,
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4",
+        "r2q1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP3PPP/R2QKB1R w KQ - 0 9",
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+        "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        "8/8/4k3/3p4/3P4/4K3/8/8 w - - 0 1"
+    };
+
+    /** The names of the features of the search that can be switched off. */
+    private static final String[] FEATURES = {"pvs", "aspiration", "nullmove", "lmr"};
+
+    /** The Search flag of each feature name. */
+    private static final int[] FLAGS = {
+        Search.PRINCIPAL_VARIATION, Search.ASPIRATION_WINDOWS, Search.NULL_MOVE,
+        Search.LATE_MOVE_REDUCTIONS
+    };
+
+    /** This class only has a main method. */
+    private Bench() {}
+
+    /**
+     * Searches every position to the depth with the engine
+     * and prints the results. The table and evaluation cache
+     * are cleared before each position so every run starts
+     * the same way.
+     *
+     * @param engine as Engine
+     * @param depth as int
+     * @return the total nodes and the total time in nanoseconds
+     */
+    public static long[] run(Engine engine, int depth) {
+        long totalNodes = 0;
+        long totalTime = 0;
+
+        System.out.println("Threads: " + engine.getThreads()
+                           + (engine.getNetwork() != null ? ", network" : ""));
+
+        for (String fen : POSITIONS) {
+            Position position = Position.fromFen(fen);
+            engine.getTable().clear();
+            engine.getEvalCache().clear();
+
+            long start = System.nanoTime();
+            int move = engine.search(position, Long.MAX_VALUE, depth);
+            long elapsed = Math.max(1, System.nanoTime() - start);
+
+            totalNodes += engine.getNodes();
+            totalTime += elapsed;
+            System.out.printf("%-8s %10d nodes %8d ms %5.1f%% first %5.1f%% cached   %s%n",
+                              Move.toString(move), engine.getNodes(), elapsed / 1000000,
+                              engine.getFirstMoveCutoffRate() * 100, engine.getEvalHitRate() * 100, fen);
+        }
+
+        System.out.println("Nodes: " + totalNodes);
+        System.out.println("Time: " + totalTime / 1000000 + " ms");
+        System.out.println("Nodes/sec: " + totalNodes * 1000000000L / totalTime);
+        System.out.println();
+        return new long[] {totalNodes, totalTime};
+    }
+
+    /**
+     * Returns the Search flag of the feature name.
+     *
+     * @param name as String
+     * @return the flag
+     */
+    private static int flagOf(String name) {
+        for (int i = 0; i < FEATURES.length; i++) {
+            if (FEATURES[i].equals(name)) {
+                return FLAGS[i];
+            }
+        }
+        throw new IllegalArgumentException("Unknown feature: " + name);
+    }
+
+    /**
+     * Runs the benchmark from the command line.
+     *
+     * @param args [-depth d] [-threads n] [-hash mb] [-disable feature,...] [-nnue file]
+     * @throws IOException if the network can not be read
+     */
+    public static void main(String[] args) throws IOException {
+        int depth = 7;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hashMegabytes = 64;
+        int features = Search.ALL_FEATURES;
+        Network network = null;
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-depth")) {
+                depth = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-threads")) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-hash")) {
+                hashMegabytes = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-disable")) {
+                for (String name : args[++i].split(",")) {
+                    features &= ~flagOf(name);
+                }
+            } else if (args[i].equals("-nnue")) {
+                network = Network.load(Paths.get(args[++i]));
+            } else {
+                System.out.println("Usage: java Bench [-depth d] [-threads n] [-hash mb]"
+                                   + " [-disable " + String.join(",", FEATURES) + "] [-nnue file]");
+                return;
+            }
+        }
+
+        Engine engine = new Engine(1, hashMegabytes);
+        engine.setFeatures(features);
+        long[] single = run(engine, depth);
+
+        if (network != null) {
+            engine.setNetwork(network);
+            long[] evaluated = run(engine, depth);
+            engine.shutdown();
+
+            System.out.printf("Network nodes/sec: %.2f of hand-written%n",
+                              ((double) evaluated[0] / evaluated[1]) / ((double) single[0] / single[1]));
+            return;
+        }
+
+        engine.setThreads(threads);
+        long[] parallel = run(engine, depth);
+        engine.shutdown();
+
+        System.out.printf("Time to depth speedup: %.2f%n", (double) single[1] / parallel[1]);
+    }
+}
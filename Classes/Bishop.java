@@ -1,6 +1,5 @@
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.scene.layout.GridPane;
 
 /**
  * The class Bishop is a Piece.
@@ -65,76 +64,4 @@ public class Bishop extends Piece {
     public ImageView getPiece() {
         return piece;
     }
-    
-    /**
-     * This method will be called when a piece has
-     * been selected. It will loop through the
-     * square array to set all the valid squares
-     * that the selected piece can legally move to.
-     * A bishop can move diagonally unlimited amount
-     * of spaces as long as there is no other piece
-     * blocking it.
-     * 
-     * @param squareArray as Square[]
-     */
-    @Override
-    public void validMoves(Square[] squareArray) {
-        int currentCol = GridPane.getColumnIndex(piece);
-        
-        int upLeftMoves = 9;
-        int upRightMoves = 7;
-        
-        int downLeftMoves = 7;
-        int downRightMoves = 9;
-        
-        for (int i = 63; i >= 0; i--) {
-            if (squareArray[i].getPosition() == getPosition() - upLeftMoves) {
-                if (squareArray[i].getHasAPiece() || --currentCol != GridPane.getColumnIndex(squareArray[i].getRec())) {
-                   break;
-                }
-                Square.setGreenFill(squareArray[i]);
-                squareArray[i].setPieceCanMoveTo(true);
-                upLeftMoves += 9;
-            }
-        }
-        
-        currentCol = GridPane.getColumnIndex(piece);
-        
-        for (int i = 0; i < squareArray.length; i++) {
-            if (squareArray[i].getPosition() == getPosition() + downLeftMoves) {
-                if (squareArray[i].getHasAPiece() || --currentCol != GridPane.getColumnIndex(squareArray[i].getRec()) ) {
-                   break;
-                }
-                Square.setGreenFill(squareArray[i]);
-                squareArray[i].setPieceCanMoveTo(true);
-                downLeftMoves += 7;
-            }
-        }
-        
-        currentCol = GridPane.getColumnIndex(piece);
-        
-        for (int i = 63; i >= 0; i--) {
-            if (squareArray[i].getPosition() == getPosition() - upRightMoves) {
-                if (squareArray[i].getHasAPiece() || ++currentCol != GridPane.getColumnIndex(squareArray[i].getRec())) {
-                   break;
-                }
-                Square.setGreenFill(squareArray[i]);
-                squareArray[i].setPieceCanMoveTo(true);
-                upRightMoves += 7;
-            }
-        }
-        
-        currentCol = GridPane.getColumnIndex(piece);
-        
-        for (int i = 0; i < squareArray.length; i++) {
-            if (squareArray[i].getPosition() == getPosition() + downRightMoves) {
-                if (squareArray[i].getHasAPiece() || ++currentCol != GridPane.getColumnIndex(squareArray[i].getRec())) {
-                   break;
-                }
-                Square.setGreenFill(squareArray[i]);
-                squareArray[i].setPieceCanMoveTo(true);
-                downRightMoves += 9;
-            }
-        }      
-    }   
 }
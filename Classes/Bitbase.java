@@ -0,0 +1,521 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The class Bitbase knows whether the side with the
+ * extra piece wins or draws every position of king
+ * and pawn, king and rook, and king and queen against
+ * a lone king. The search asks it instead of searching
+ * these endings, which it would otherwise play out
+ * move by move.
+ *
+ * The bitbases are built once by retrograde analysis
+ * and written to FILE. Every position is first marked
+ * unknown, then each pass decides the positions whose
+ * moves lead to positions already decided, until a pass
+ * decides nothing and the rest are draws. The passes
+ * are split over the threads of a fork-join pool. A
+ * position is indexed by the side to move and the
+ * squares of the strong king, weak king and piece, with
+ * the strong side as white, and takes one bit: set if
+ * the strong side wins. The file is read through a
+ * memory-mapped view, so probing never copies it.
+ */
+public class Bitbase {
+    /** The file the bitbases are written to and read from. */
+    public static final String FILE = "bitbases.bin";
+
+    /** The score of a won ending, before the progress made towards the win. */
+    public static final int KNOWN_WIN = 20000;
+
+    /** Returned by probe for a position not in the bitbases. */
+    public static final int NONE = Integer.MIN_VALUE;
+
+    /** The number that starts the file. */
+    private static final int MAGIC = 0x4B504B42;
+
+    /** The number of positions of each ending. */
+    private static final int POSITIONS = 2 * 64 * 64 * 64;
+
+    /** The size of the bits of each ending in bytes. */
+    private static final int SECTION_SIZE = POSITIONS / 8;
+
+    /** The type of the extra piece of each ending, in the order of the file. */
+    private static final int[] TYPES = {Position.PAWN, Position.ROOK, Position.QUEEN};
+
+    /** The side to move index of the strong side. */
+    private static final int STRONG = 0;
+
+    /** The side to move index of the weak side. */
+    private static final int WEAK = 1;
+
+    /** A position that is not decided yet. */
+    private static final byte UNKNOWN = 0;
+
+    /** A position the strong side wins. */
+    private static final byte WIN = 1;
+
+    /** A position that is a draw. */
+    private static final byte DRAW = 2;
+
+    /** A position that can not happen in a game. */
+    private static final byte INVALID = 3;
+
+    /** The bitbases mapped into memory. */
+    private final MappedByteBuffer bits;
+
+    /**
+     * The constructor for the class Bitbase.
+     *
+     * @param bits the mapped file
+     */
+    private Bitbase(MappedByteBuffer bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * Returns the bitbases read from a file written by write.
+     *
+     * @param path as Path
+     * @return the bitbases
+     * @throws IOException if the file can not be read or is not a bitbase file
+     */
+    public static Bitbase load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() != 4 + (long) TYPES.length * SECTION_SIZE) {
+                throw new IOException(path + " is not a bitbase file");
+            }
+
+            MappedByteBuffer bits = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (bits.order(ByteOrder.LITTLE_ENDIAN).getInt(0) != MAGIC) {
+                throw new IOException(path + " is not a bitbase file");
+            }
+            return new Bitbase(bits);
+        }
+    }
+
+    /**
+     * Returns the score of the position for the side to move
+     * if it is one of the endings, or NONE. A draw scores 0,
+     * and a win scores KNOWN_WIN plus the progress made, so
+     * the search still pushes the weak king to the edge and
+     * the pawn to promotion. A win is always below a mate.
+     *
+     * @param position as Position
+     * @return the score or NONE
+     */
+    public int probe(Position position) {
+        long occupied = position.getOccupied();
+
+        if (Long.bitCount(occupied) != 3) {
+            return NONE;
+        }
+
+        long kings = position.getPieces(Position.WHITE, Position.KING)
+                   | position.getPieces(Position.BLACK, Position.KING);
+        int square = Long.numberOfTrailingZeros(occupied & ~kings);
+        int piece = position.pieceAt(square);
+        int section = section(Position.typeOf(piece));
+
+        if (section < 0) {
+            return NONE;
+        }
+
+        int strong = Position.colorOf(piece);
+        int flip = strong == Position.WHITE ? 0 : 56;
+        int strongKing = position.kingSquare(strong) ^ flip;
+        int weakKing = position.kingSquare(strong ^ 1) ^ flip;
+        int stm = position.getSideToMove() == strong ? STRONG : WEAK;
+        int index = index(stm, strongKing, weakKing, square ^ flip);
+        int bit = (bits.get(4 + section * SECTION_SIZE + (index >>> 3)) >>> (index & 7)) & 1;
+
+        if (bit == 0) {
+            return 0;
+        }
+
+        int score = KNOWN_WIN + progress(Position.typeOf(piece), strongKing, weakKing, square ^ flip);
+        return stm == STRONG ? score : -score;
+    }
+
+    /**
+     * Returns how far the strong side has come towards the
+     * win. A queen is worth more than a rook, which is worth
+     * more than any pawn, so promoting is always progress.
+     *
+     * @param type the type of the extra piece
+     * @param strongKing as int
+     * @param weakKing as int
+     * @param square the square of the extra piece
+     * @return the progress
+     */
+    private static int progress(int type, int strongKing, int weakKing, int square) {
+        if (type == Position.PAWN) {
+            return 32 * (6 - (square >>> 3)) - 2 * distance(strongKing, square);
+        }
+
+        int row = weakKing >>> 3;
+        int col = weakKing & 7;
+        int edge = Math.max(Math.max(3 - row, row - 4), Math.max(3 - col, col - 4));
+
+        return (type == Position.QUEEN ? 900 : 500) + 40 * edge + 10 * (7 - distance(strongKing, weakKing));
+    }
+
+    /**
+     * Returns the number of king moves between two squares.
+     *
+     * @param a as int
+     * @param b as int
+     * @return the distance
+     */
+    private static int distance(int a, int b) {
+        return Math.max(Math.abs((a >>> 3) - (b >>> 3)), Math.abs((a & 7) - (b & 7)));
+    }
+
+    /**
+     * Returns the section of the file of an ending, or -1 if
+     * there is no bitbase for the piece.
+     *
+     * @param type the type of the extra piece
+     * @return the section
+     */
+    private static int section(int type) {
+        for (int i = 0; i < TYPES.length; i++) {
+            if (TYPES[i] == type) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of a position with the strong side as white.
+     *
+     * @param stm STRONG or WEAK
+     * @param strongKing as int
+     * @param weakKing as int
+     * @param square the square of the extra piece
+     * @return the index
+     */
+    private static int index(int stm, int strongKing, int weakKing, int square) {
+        return (stm << 18) | (strongKing << 12) | (weakKing << 6) | square;
+    }
+
+    /**
+     * Returns the results of every position of an ending,
+     * built with passes on the pool until nothing changes.
+     * Promotions of the pawn are looked up in the queen and
+     * rook results, which must be built first.
+     *
+     * @param type the type of the extra piece
+     * @param queens the results of king and queen or null
+     * @param rooks the results of king and rook or null
+     * @param pool as ForkJoinPool
+     * @return the results
+     */
+    public static byte[] generate(int type, byte[] queens, byte[] rooks, ForkJoinPool pool) {
+        byte[] results = new byte[POSITIONS];
+        AtomicBoolean changed = new AtomicBoolean(true);
+
+        while (changed.get()) {
+            changed.set(false);
+            pool.invoke(new Pass(results, type, queens, rooks, 0, POSITIONS, changed));
+        }
+
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == UNKNOWN) {
+                results[i] = DRAW;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * The class Pass decides what it can of a range of
+     * positions, splitting the range in two until it is
+     * small enough. Results only ever change from unknown
+     * to decided, so the tasks share one array and a task
+     * reading a position another is deciding at most
+     * leaves it for the next pass.
+     */
+    private static class Pass extends RecursiveAction {
+        /** The default serial version UID. */
+        private static final long serialVersionUID = 1L;
+
+        /** The number of positions a task decides without splitting. */
+        private static final int THRESHOLD = 1 << 13;
+
+        /** The results being built. */
+        private final byte[] results;
+
+        /** The type of the extra piece. */
+        private final int type;
+
+        /** The results of king and queen or null. */
+        private final byte[] queens;
+
+        /** The results of king and rook or null. */
+        private final byte[] rooks;
+
+        /** The first index of the range. */
+        private final int start;
+
+        /** The index after the range. */
+        private final int end;
+
+        /** Set when any position is decided. */
+        private final AtomicBoolean changed;
+
+        /**
+         * The constructor for the class Pass.
+         *
+         * @param results as byte[]
+         * @param type as int
+         * @param queens as byte[]
+         * @param rooks as byte[]
+         * @param start as int
+         * @param end as int
+         * @param changed as AtomicBoolean
+         */
+        private Pass(byte[] results, int type, byte[] queens, byte[] rooks, int start, int end,
+                     AtomicBoolean changed) {
+            this.results = results;
+            this.type = type;
+            this.queens = queens;
+            this.rooks = rooks;
+            this.start = start;
+            this.end = end;
+            this.changed = changed;
+        }
+
+        /**
+         * Decides the positions of the range or splits it.
+         */
+        @Override
+        protected void compute() {
+            if (end - start > THRESHOLD) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new Pass(results, type, queens, rooks, start, middle, changed),
+                          new Pass(results, type, queens, rooks, middle, end, changed));
+                return;
+            }
+
+            boolean decided = false;
+
+            for (int i = start; i < end; i++) {
+                if (results[i] == UNKNOWN) {
+                    byte result = classify(i);
+
+                    if (result != UNKNOWN) {
+                        results[i] = result;
+                        decided = true;
+                    }
+                }
+            }
+            if (decided) {
+                changed.set(true);
+            }
+        }
+
+        /**
+         * Returns the result of a position from the results of
+         * the positions its moves lead to, or UNKNOWN if they
+         * are not decided yet.
+         *
+         * @param index as int
+         * @return the result
+         */
+        private byte classify(int index) {
+            int stm = index >>> 18;
+            int strongKing = (index >>> 12) & 63;
+            int weakKing = (index >>> 6) & 63;
+            int square = index & 63;
+
+            if (strongKing == weakKing || strongKing == square || weakKing == square
+                || (Attacks.king(strongKing) & (1L << weakKing)) != 0
+                || (type == Position.PAWN && (square < 8 || square >= 56))) {
+                return INVALID;
+            }
+
+            long occupied = (1L << strongKing) | (1L << weakKing) | (1L << square);
+            boolean check = (attacks(square, occupied) & (1L << weakKing)) != 0;
+
+            if (stm == STRONG) {
+                return check ? INVALID : strongMoves(strongKing, weakKing, square, occupied);
+            }
+            return weakMoves(strongKing, weakKing, square, occupied, check);
+        }
+
+        /**
+         * Returns the result of a position with the strong side
+         * to move: a win if any move wins, a draw if every move
+         * draws.
+         *
+         * @param strongKing as int
+         * @param weakKing as int
+         * @param square as int
+         * @param occupied as long
+         * @return the result
+         */
+        private byte strongMoves(int strongKing, int weakKing, int square, long occupied) {
+            boolean unknown = false;
+            long targets = Attacks.king(strongKing) & ~Attacks.king(weakKing) & ~(1L << square);
+
+            while (targets != 0) {
+                byte result = results[index(WEAK, Long.numberOfTrailingZeros(targets), weakKing, square)];
+
+                if (result == WIN) {
+                    return WIN;
+                }
+                unknown |= result == UNKNOWN;
+                targets &= targets - 1;
+            }
+
+            if (type == Position.PAWN) {
+                targets = Attacks.pawnPushes(Position.WHITE, square, occupied);
+            } else {
+                targets = attacks(square, occupied) & ~occupied;
+            }
+
+            while (targets != 0) {
+                int to = Long.numberOfTrailingZeros(targets);
+                int next = index(WEAK, strongKing, weakKing, to);
+                byte result;
+
+                if (type == Position.PAWN && to < 8) {
+                    result = queens[next] == WIN || rooks[next] == WIN ? WIN
+                           : queens[next] == UNKNOWN || rooks[next] == UNKNOWN ? UNKNOWN : DRAW;
+                } else {
+                    result = results[next];
+                }
+
+                if (result == WIN) {
+                    return WIN;
+                }
+                unknown |= result == UNKNOWN;
+                targets &= targets - 1;
+            }
+            return unknown ? UNKNOWN : DRAW;
+        }
+
+        /**
+         * Returns the result of a position with the weak side
+         * to move: a draw if any move draws, or if the king is
+         * stalemated or can take the piece, and a win if every
+         * move loses or the king is mated.
+         *
+         * @param strongKing as int
+         * @param weakKing as int
+         * @param square as int
+         * @param occupied as long
+         * @param check as boolean
+         * @return the result
+         */
+        private byte weakMoves(int strongKing, int weakKing, int square, long occupied, boolean check) {
+            long guarded = Attacks.king(strongKing) | attacks(square, occupied ^ (1L << weakKing));
+            long targets = Attacks.king(weakKing) & ~guarded;
+            boolean unknown = false;
+
+            if (targets == 0) {
+                return check ? WIN : DRAW;
+            }
+            if ((targets & (1L << square)) != 0) {
+                return DRAW;
+            }
+
+            while (targets != 0) {
+                byte result = results[index(STRONG, strongKing, Long.numberOfTrailingZeros(targets), square)];
+
+                if (result == DRAW) {
+                    return DRAW;
+                }
+                unknown |= result == UNKNOWN;
+                targets &= targets - 1;
+            }
+            return unknown ? UNKNOWN : WIN;
+        }
+
+        /**
+         * Returns the squares the extra piece attacks.
+         *
+         * @param square as int
+         * @param occupied as long
+         * @return the attacks
+         */
+        private long attacks(int square, long occupied) {
+            return type == Position.PAWN ? Attacks.pawn(Position.WHITE, square)
+                                         : MoveGenerator.attacks(type, square, occupied);
+        }
+    }
+
+    /**
+     * Writes the results of every ending to a file, one bit
+     * for each position.
+     *
+     * @param path as Path
+     * @param endings the results of each ending in the order of TYPES
+     * @throws IOException if the file can not be written
+     */
+    public static void write(Path path, byte[][] endings) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + TYPES.length * SECTION_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+
+        for (byte[] results : endings) {
+            for (int i = 0; i < POSITIONS; i += 8) {
+                int packed = 0;
+
+                for (int j = 0; j < 8; j++) {
+                    if (results[i + j] == WIN) {
+                        packed |= 1 << j;
+                    }
+                }
+                buffer.put((byte) packed);
+            }
+        }
+        Files.write(path, buffer.array());
+    }
+
+    /**
+     * Builds the bitbases on every processor and writes them
+     * to FILE or the file given.
+     *
+     * @param args [file]
+     * @throws IOException if the file can not be written
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = Paths.get(args.length > 0 ? args[0] : FILE);
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        long start = System.nanoTime();
+
+        byte[] queens = generate(Position.QUEEN, null, null, pool);
+        byte[] rooks = generate(Position.ROOK, null, null, pool);
+        byte[] pawns = generate(Position.PAWN, queens, rooks, pool);
+        byte[][] endings = {pawns, rooks, queens};
+
+        pool.shutdown();
+        write(path, endings);
+
+        for (int i = 0; i < TYPES.length; i++) {
+            int wins = 0;
+            int draws = 0;
+
+            for (byte result : endings[i]) {
+                wins += result == WIN ? 1 : 0;
+                draws += result == DRAW ? 1 : 0;
+            }
+            System.out.println("K" + "PRQ".charAt(i) + "K: " + wins + " wins, " + draws + " draws");
+        }
+        System.out.println("Time: " + (System.nanoTime() - start) / 1000000 + " ms on "
+                           + pool.getParallelism() + " threads, written to " + path);
+    }
+}
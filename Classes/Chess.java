@@ -1,15 +1,22 @@
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.control.MenuBar;
 import javafx.scene.Scene;
 import javafx.scene.control.Menu;
 import javafx.scene.control.MenuItem;
+import javafx.scene.control.CheckMenuItem;
+import javafx.scene.control.RadioMenuItem;
+import javafx.scene.control.SeparatorMenuItem;
+import javafx.scene.control.ToggleGroup;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.BorderPane;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.scene.control.Alert;
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.ObjectOutputStream;
 import java.io.FileInputStream;
@@ -23,7 +30,8 @@ import java.io.InvalidClassException;
  * in the scene to be launched in the
  * JavaFX application. It also incorporates
  * a menu bar to access options like saving
- * and opening a game.
+ * and opening a game, or playing against
+ * the computer.
  */
 public class Chess extends Application {
     /** The border pane will position the menu bar and chess board. */
@@ -41,6 +49,36 @@ public class Chess extends Application {
     /** The menu item save serializes the state of the board and saves it. */
     private MenuItem save;
     
+    /** The menu computer has options for playing against the computer. */
+    private Menu computer;
+    
+    /** The menu item play black lets the computer play the black pieces. */
+    private CheckMenuItem playBlack;
+    
+    /** The time the computer searches for each move in milliseconds. */
+    private long moveTime;
+    
+    /** True if the computer searches while the player thinks. */
+    private boolean ponder;
+    
+    /** The network the computer evaluates positions with, or null for the hand-written evaluation. */
+    private Network network;
+    
+    /** The opening book the computer plays from, or null to always search. */
+    private PolyglotBook book;
+    
+    /** The solver looking for mates in the board's position, made when first needed. */
+    private MateSolver solver;
+    
+    /** The most moves the mate solver tries. */
+    private static final int MATE_MOVES = 10;
+    
+    /** The time the mate solver searches in milliseconds. */
+    private static final long MATE_TIME = 30000;
+    
+    /** The size of the mate solver's node table in megabytes. */
+    private static final int MATE_MEGABYTES = 64;
+    
     /** The chess board that contains the squares and pieces to play chess. */
     private ChessBoard board;
     
@@ -76,7 +114,112 @@ public class Chess extends Application {
         });
         
         file.getItems().addAll(open, save);
-        menuBar = new MenuBar(file);
+        
+        computer = new Menu("Computer");
+        playBlack = new CheckMenuItem("Play Black");
+        moveTime = 1000;
+        
+        playBlack.setOnAction(new EventHandler<ActionEvent>() {
+            @Override
+            public void handle(ActionEvent event) {
+                if (playBlack.isSelected()) {
+                    ComputerPlayer player = new ComputerPlayer(Position.BLACK, moveTime);
+                    player.setNetwork(network);
+                    player.setBook(book);
+                    player.setPonder(ponder);
+                    board.setComputer(player);
+                } else {
+                    board.setComputer(null);
+                }
+            }
+        });
+        
+        ToggleGroup moveTimes = new ToggleGroup();
+        computer.getItems().addAll(playBlack, new SeparatorMenuItem());
+        
+        for (int seconds : new int[] {1, 5, 15}) {
+            RadioMenuItem item = new RadioMenuItem(seconds + (seconds == 1 ? " Second" : " Seconds")
+                                                   + " per Move");
+            item.setToggleGroup(moveTimes);
+            item.setSelected(seconds * 1000 == moveTime);
+            item.setOnAction(new EventHandler<ActionEvent>() {
+                @Override
+                public void handle(ActionEvent event) {
+                    moveTime = seconds * 1000;
+                    
+                    if (board.getComputer() != null) {
+                        board.getComputer().setMoveTime(moveTime);
+                    }
+                }
+            });
+            computer.getItems().add(item);
+        }
+        
+        ToggleGroup evaluations = new ToggleGroup();
+        RadioMenuItem handWritten = new RadioMenuItem("Hand-Written Evaluation");
+        RadioMenuItem neural = new RadioMenuItem("Neural Network...");
+        handWritten.setToggleGroup(evaluations);
+        neural.setToggleGroup(evaluations);
+        handWritten.setSelected(true);
+        
+        handWritten.setOnAction(new EventHandler<ActionEvent>() {
+            @Override
+            public void handle(ActionEvent event) {
+                setNetwork(null);
+            }
+        });
+        
+        neural.setOnAction(new EventHandler<ActionEvent>() {
+            @Override
+            public void handle(ActionEvent event) {
+                Network loaded = loadNetwork(primaryStage);
+                
+                if (loaded != null) {
+                    setNetwork(loaded);
+                } else {
+                    (network == null ? handWritten : neural).setSelected(true);
+                }
+            }
+        });
+        
+        CheckMenuItem openingBook = new CheckMenuItem("Opening Book...");
+        
+        openingBook.setOnAction(new EventHandler<ActionEvent>() {
+            @Override
+            public void handle(ActionEvent event) {
+                setBook(openingBook.isSelected() ? loadBook(primaryStage) : null);
+                openingBook.setSelected(book != null);
+            }
+        });
+        
+        MenuItem findMate = new MenuItem("Find Mate");
+        
+        findMate.setOnAction(new EventHandler<ActionEvent>() {
+            @Override
+            public void handle(ActionEvent event) {
+                findMate(findMate);
+            }
+        });
+        
+        CheckMenuItem ponderItem = new CheckMenuItem("Think on Player's Time");
+        ponder = true;
+        ponderItem.setSelected(ponder);
+        
+        ponderItem.setOnAction(new EventHandler<ActionEvent>() {
+            @Override
+            public void handle(ActionEvent event) {
+                ponder = ponderItem.isSelected();
+                
+                if (board.getComputer() != null) {
+                    board.getComputer().setPonder(ponder);
+                }
+            }
+        });
+        
+        computer.getItems().addAll(new SeparatorMenuItem(), handWritten, neural,
+                                   new SeparatorMenuItem(), openingBook, ponderItem, findMate);
+        
+        menuBar = new MenuBar(file, computer);
         board = new ChessBoard();
         
         borderPane.setTop(menuBar);
@@ -89,6 +232,128 @@ public class Chess extends Application {
         primaryStage.show();
     }
     
+    /**
+     * Lets the user pick a network file and returns the
+     * network read from it, or null if none was picked or
+     * it could not be read.
+     * 
+     * @param stage the window that owns the file chooser
+     * @return the network
+     */
+    public Network loadNetwork(Stage stage) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Open Network");
+        File chosen = chooser.showOpenDialog(stage);
+        
+        if (chosen == null) {
+            return null;
+        }
+        
+        try {
+            return Network.load(chosen.toPath());
+        } catch (IOException e) {
+            Alert invalidNetwork = new Alert(Alert.AlertType.ERROR);
+            invalidNetwork.setHeaderText("Invalid Network");
+            invalidNetwork.setContentText("Could not read network: \"" + chosen.getName() + "\"");
+            invalidNetwork.showAndWait();
+            e.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Sets the network the computer evaluates positions
+     * with, and passes it to the computer if it is playing.
+     * 
+     * @param network the network to set or null for the hand-written evaluation
+     */
+    public void setNetwork(Network network) {
+        this.network = network;
+        
+        if (board.getComputer() != null) {
+            board.getComputer().setNetwork(network);
+        }
+    }
+    
+    /**
+     * Lets the user pick a Polyglot book file and returns
+     * the book, or null if none was picked or it could not
+     * be read.
+     * 
+     * @param stage the window that owns the file chooser
+     * @return the book
+     */
+    public PolyglotBook loadBook(Stage stage) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Open Opening Book");
+        chooser.getExtensionFilters().addAll(new FileChooser.ExtensionFilter("Polyglot Books", "*.bin"),
+                                             new FileChooser.ExtensionFilter("All Files", "*.*"));
+        File chosen = chooser.showOpenDialog(stage);
+        
+        if (chosen == null) {
+            return null;
+        }
+        
+        try {
+            return new PolyglotBook(chosen.toPath());
+        } catch (IOException e) {
+            Alert invalidBook = new Alert(Alert.AlertType.ERROR);
+            invalidBook.setHeaderText("Invalid Opening Book");
+            invalidBook.setContentText("Could not read opening book: \"" + chosen.getName() + "\"");
+            invalidBook.showAndWait();
+            e.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Sets the opening book the computer plays from, and
+     * passes it to the computer if it is playing.
+     * 
+     * @param book the book to set or null to always search
+     */
+    public void setBook(PolyglotBook book) {
+        this.book = book;
+        
+        if (board.getComputer() != null) {
+            board.getComputer().setBook(book);
+        }
+    }
+    
+    /**
+     * Looks for the shortest forced mate of the side to
+     * move in the board's position on a background thread,
+     * and shows the mate found, or that none was, with the
+     * nodes searched per second. The menu item is disabled
+     * until the solver is done.
+     * 
+     * @param item the menu item that started the solver
+     */
+    public void findMate(MenuItem item) {
+        Position position = new Position(board.getPosition());
+        
+        if (solver == null) {
+            solver = new MateSolver(MATE_MEGABYTES);
+        }
+        item.setDisable(true);
+        
+        Thread thread = new Thread(() -> {
+            int moves = solver.solve(position, MATE_MOVES, MATE_TIME);
+            String result = MateSolver.describe(solver, moves, MATE_MOVES);
+            
+            Platform.runLater(() -> {
+                item.setDisable(false);
+                
+                Alert mate = new Alert(Alert.AlertType.INFORMATION);
+                mate.setHeaderText(moves == 0 ? "No Mate Found" : "Mate in " + moves);
+                mate.setContentText(result);
+                mate.showAndWait();
+            });
+        }, "Mate Solver");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
     /**
      * This open method will be called when the
      * user clicks on the open option in the file
@@ -113,7 +378,8 @@ public class Chess extends Application {
             ObjectInputStream in = new ObjectInputStream(file);               
             ChessBoard savedBoard = new ChessBoard();
             savedBoard = (ChessBoard) in.readObject();
-            obj.resetBoard(savedBoard.getSquareArray(), savedBoard.getPieceArray());
+            obj.resetBoard(savedBoard.getSquareArray(), savedBoard.getPieceArray(),
+                           savedBoard.getPosition());
             in.close();
         } catch (InvalidClassException e) {
             invalidClass.showAndWait();
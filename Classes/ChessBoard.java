@@ -1,6 +1,12 @@
 import javafx.scene.layout.GridPane;
 import javafx.geometry.HPos;
+import javafx.scene.image.ImageView;
+import javafx.scene.control.Alert;
 import java.io.Serializable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * The class ChessBoard is a GridPane
@@ -11,6 +17,13 @@ public class ChessBoard extends GridPane implements Serializable {
     /** The default serial version UID. */
     private static final long serialVersionUID = 1L;
 
+    /** The background thread the legal moves of each position are worked out on. */
+    private static final ExecutorService LEGAL_MOVES = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Legal Moves");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     /** An array that holds all 64 squares of a chess board. */
     private Square[] squareArray;
     
@@ -20,6 +33,15 @@ public class ChessBoard extends GridPane implements Serializable {
     /** A Mouse event handler to apply to the squares and pieces. */
     private MouseClick click;
     
+    /** The headless model of the pieces that the moves are worked out on. */
+    private Position position;
+    
+    /** The computer playing one of the colors or null if two people are playing. */
+    private transient ComputerPlayer computer;
+    
+    /** The legal moves of the position, worked out in the background after each move. */
+    private transient Future<LegalMoves> legalMoves;
+    
     /**
      * The constructor for the class ChessBoard.
      */
@@ -29,6 +51,8 @@ public class ChessBoard extends GridPane implements Serializable {
         click = new MouseClick();
         drawSquares();
         drawPieces();
+        position = Position.fromPieces(pieceArray);
+        updateLegalMoves();
     }
     
     /**
@@ -49,6 +73,116 @@ public class ChessBoard extends GridPane implements Serializable {
         return pieceArray;
     }
     
+    /**
+     * Returns the position as a Position.
+     * 
+     * @return position
+     */
+    public Position getPosition() {
+        return position;
+    }
+    
+    /**
+     * Returns the legal moves of the position. They are
+     * normally worked out by the time a piece is clicked;
+     * if not, this waits for them. If the wait is
+     * interrupted or working them out failed, they are
+     * worked out again on this thread.
+     * 
+     * @return the legal moves
+     */
+    public LegalMoves getLegalMoves() {
+        try {
+            return legalMoves.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+        }
+        return new LegalMoves(position);
+    }
+    
+    /**
+     * This method starts working out the legal moves of
+     * a copy of the position on the background thread, so
+     * the JavaFX Application Thread is free right after a
+     * move and a click only has to look them up.
+     */
+    private void updateLegalMoves() {
+        Position copy = new Position(position);
+        legalMoves = LEGAL_MOVES.submit(() -> new LegalMoves(copy));
+    }
+    
+    /**
+     * Returns the computer as a ComputerPlayer.
+     * 
+     * @return computer
+     */
+    public ComputerPlayer getComputer() {
+        return computer;
+    }
+    
+    /**
+     * Sets the computer player. The previous computer is
+     * shut down, any piece selected is deselected so it
+     * can't be moved for the computer, and the new one
+     * starts thinking if it's its turn.
+     * 
+     * @param computer the computer to set or null
+     */
+    public void setComputer(ComputerPlayer computer) {
+        if (this.computer != null) {
+            this.computer.shutdown();
+        }
+        this.computer = computer;
+        
+        Square.resetAllStrokes(squareArray);
+        Square.resetAllFills(squareArray);
+        Piece.resetAllSelectedPieces(pieceArray);
+        Square.resetAllPieceCanMoveToSquares(squareArray);
+        
+        if (isComputerTurn()) {
+            computer.think(this);
+        }
+    }
+    
+    /**
+     * Returns true if the computer plays the color whose
+     * turn it is. The pieces can't be clicked on then.
+     * 
+     * @return true or false
+     */
+    public boolean isComputerTurn() {
+        return computer != null && computer.getColor() == position.getSideToMove();
+    }
+    
+    /**
+     * This method instantiates a new piece object of the
+     * type with the name.
+     * 
+     * @param name as String
+     * @param color as String
+     * @param position as int
+     * @param turn as boolean
+     * @return the piece
+     */
+    public static Piece createPiece(String name, String color, int position, boolean turn) {
+        switch (name) {
+            case "pawn":
+                return new Pawn(name, color, position, false, turn);
+            case "knight":
+                return new Knight(name, color, position, false, turn);
+            case "bishop":
+                return new Bishop(name, color, position, false, turn);
+            case "rook":
+                return new Rook(name, color, position, false, turn);
+            case "queen":
+                return new Queen(name, color, position, false, turn);
+            default:
+                return new King(name, color, position, false, turn);
+        }
+    }
+    
     /**
      * This method instantiates a new square object
      * into each index of the square array.
@@ -142,12 +276,12 @@ public class ChessBoard extends GridPane implements Serializable {
                 if (index <= 15) {               
                     add(pieceArray[index].drawBlack(), col, row);             
                     setHalignment(pieceArray[index].getPiece(), HPos.CENTER);
-                    click.pieceClicked(pieceArray[index], squareArray, pieceArray);
+                    click.pieceClicked(pieceArray[index], squareArray, pieceArray, this);
                     index++;
                 } else {                   
                     add(pieceArray[index].drawWhite(), col, whiteRow);
                     setHalignment(pieceArray[index].getPiece(), HPos.CENTER);
-                    click.pieceClicked(pieceArray[index], squareArray, pieceArray);
+                    click.pieceClicked(pieceArray[index], squareArray, pieceArray, this);
                     index++; 
                 }
             }
@@ -157,6 +291,189 @@ public class ChessBoard extends GridPane implements Serializable {
         }
     }
     
+    /**
+     * This method plays a legal move on the board. The
+     * piece's image is moved to its new square, a captured
+     * piece is taken off the board, the rook is moved when
+     * castling and a promoted pawn is replaced. Then the
+     * move is made on the position and the turn passes to
+     * the other color. If the game is drawn, it is shown.
+     * Otherwise, if the computer plays that color, it starts
+     * thinking.
+     * 
+     * @param move as int
+     */
+    public void applyMove(int move) {
+        int from = Move.from(move) + 1;
+        int to = Move.to(move) + 1;
+        int flags = Move.flags(move);
+        Piece piece = getPieceAt(from);
+        
+        if (flags == Move.EN_PASSANT) {
+            capturePiece(piece.getColor().equals("white") ? to + 8 : to - 8);
+        } else if (Move.isCapture(move)) {
+            capturePiece(to);
+        }
+        
+        movePiece(piece, to);
+        
+        if (flags == Move.KING_CASTLE) {
+            movePiece(getPieceAt(from + 3), from + 1);
+        } else if (flags == Move.QUEEN_CASTLE) {
+            movePiece(getPieceAt(from - 4), from - 1);
+        }
+        
+        if (piece.getName().equals("pawn")) {
+            piece.setFirstMove(false);
+        }
+        if (Move.isPromotion(move)) {
+            promotePiece(piece, Position.nameOf(Move.promotionType(move)));
+        }
+        
+        position.makeMove(move);
+        updateLegalMoves();
+        
+        if (piece.getColor().equals("white")) {
+            Piece.setBlackTurnTrue(pieceArray);
+        } else {
+            Piece.setWhiteTurnTrue(pieceArray);
+        }
+        
+        Piece.resetAllSelectedPieces(pieceArray);
+        Square.resetAllPieceCanMoveToSquares(squareArray);
+        
+        String draw = drawReason();
+        
+        if (draw != null) {
+            Alert drawn = new Alert(Alert.AlertType.INFORMATION);
+            drawn.setHeaderText("Draw");
+            drawn.setContentText("The game is drawn by " + draw + ".");
+            drawn.show();
+        } else if (isComputerTurn()) {
+            computer.think(this);
+        }
+    }
+    
+    /**
+     * Returns why the game is drawn, or null if it is not:
+     * the same position three times with the same side to
+     * move, or 50 moves by each side without a capture or
+     * pawn move, unless the last of them gave checkmate.
+     * 
+     * @return the reason or null
+     */
+    public String drawReason() {
+        if (position.isRepetition(3)) {
+            return "threefold repetition";
+        }
+        if (position.getHalfmoveClock() >= 100 && (getLegalMoves().size() > 0 || !position.inCheck())) {
+            return "the fifty-move rule";
+        }
+        return null;
+    }
+    
+    /**
+     * Returns the piece on the square with the position
+     * or null if the square is empty.
+     * 
+     * @param position as int
+     * @return the piece
+     */
+    public Piece getPieceAt(int position) {
+        for (int i = 0; i < pieceArray.length; i++) {
+            if (pieceArray[i].getPosition() == position) {
+                return pieceArray[i];
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * This method moves the image of the piece to the
+     * square with the position and updates the squares
+     * it left and landed on.
+     * 
+     * @param piece as Piece
+     * @param position as int
+     */
+    private void movePiece(Piece piece, int position) {
+        int rowDest = GridPane.getRowIndex(squareArray[position - 1].getRec());
+        int colDest = GridPane.getColumnIndex(squareArray[position - 1].getRec());
+        
+        getChildren().remove(piece.getPiece());
+        add(piece.getPiece(), colDest, rowDest);
+        
+        squareArray[piece.getPosition() - 1].setHasAPiece(false);
+        squareArray[position - 1].setHasAPiece(true);
+        piece.setPosition(position);
+    }
+    
+    /**
+     * This method takes the piece on the square with the
+     * position off the board. A captured piece keeps its
+     * place in the piece array with a position of 0.
+     * 
+     * @param position as int
+     */
+    private void capturePiece(int position) {
+        Piece captured = getPieceAt(position);
+        
+        getChildren().remove(captured.getPiece());
+        squareArray[position - 1].setHasAPiece(false);
+        captured.setPosition(0);
+    }
+    
+    /**
+     * This method replaces a pawn in the piece array with a
+     * new piece of the type it is promoted to and draws it
+     * on the pawn's square.
+     * 
+     * @param pawn as Piece
+     * @param name as String
+     */
+    private void promotePiece(Piece pawn, String name) {
+        for (int i = 0; i < pieceArray.length; i++) {
+            if (pieceArray[i] == pawn) {
+                pieceArray[i] = createPiece(name, pawn.getColor(), pawn.getPosition(), pawn.getTurn());
+                replaceImage(pawn, pieceArray[i]);
+            }
+        }
+    }
+    
+    /**
+     * This method removes the image of the old piece and
+     * draws the new piece in its place with a mouse click
+     * handler.
+     * 
+     * @param oldPiece as Piece
+     * @param newPiece as Piece
+     */
+    private void replaceImage(Piece oldPiece, Piece newPiece) {
+        int rowDest = GridPane.getRowIndex(oldPiece.getPiece());
+        int colDest = GridPane.getColumnIndex(oldPiece.getPiece());
+        
+        getChildren().remove(oldPiece.getPiece());
+        add(drawPiece(newPiece), colDest, rowDest);
+    }
+    
+    /**
+     * This method draws the image of a piece of either
+     * color, centers it and sets its mouse click handler.
+     * 
+     * @param piece as Piece
+     * @return the image of the piece
+     */
+    private ImageView drawPiece(Piece piece) {
+        if (piece.getColor().equals("white")) {
+            piece.drawWhite();
+        } else {
+            piece.drawBlack();
+        }
+        setHalignment(piece.getPiece(), HPos.CENTER);
+        click.pieceClicked(piece, squareArray, pieceArray, this);
+        return piece.getPiece();
+    }
+    
     /**
      * This method will be called when the user
      * successfully opens a saved game. It takes in
@@ -164,15 +481,35 @@ public class ChessBoard extends GridPane implements Serializable {
      * and copies all of its variables to the current
      * game. All of the image view of the pieces will
      * be removed and redrawn to the positions of where
-     * they were in the saved game.
+     * they were in the saved game. A piece that was
+     * promoted in the saved game is replaced first.
+     * The position saved with the game is copied, so
+     * castling rights, en passant and the moves played
+     * for finding repetitions are kept. A game saved
+     * without one has its position rebuilt from the
+     * pieces instead.
      * 
      * @param squareArray as Square[]
      * @param pieceArray as Piece[]
+     * @param position the saved position or null
      */
-    public void resetBoard(Square[] squareArray, Piece[] pieceArray) {
+    public void resetBoard(Square[] squareArray, Piece[] pieceArray, Position position) {
         int rowDest;
         int colDest;
         
+        if (computer != null) {
+            computer.cancel();
+        }
+        
+        for (int i = 0; i < this.pieceArray.length; i++) {
+            if (!this.pieceArray[i].getName().equals(pieceArray[i].getName())) {
+                getChildren().remove(this.pieceArray[i].getPiece());
+                this.pieceArray[i] = createPiece(pieceArray[i].getName(), pieceArray[i].getColor(),
+                                                 pieceArray[i].getPosition(), false);
+                drawPiece(this.pieceArray[i]);
+            }
+        }
+        
         for (int i = 0; i < this.pieceArray.length; i++) {
             getChildren().remove(this.pieceArray[i].getPiece());
         }
@@ -200,9 +537,16 @@ public class ChessBoard extends GridPane implements Serializable {
             this.squareArray[i].setHasAPiece(squareArray[i].getHasAPiece());
         }
         
+        this.position = position != null ? new Position(position) : Position.fromPieces(this.pieceArray);
+        updateLegalMoves();
+        
         Square.resetAllStrokes(this.squareArray);
         Square.resetAllFills(this.squareArray);
         Piece.resetAllSelectedPieces(this.pieceArray);
         Square.resetAllPieceCanMoveToSquares(this.squareArray);
+        
+        if (isComputerTurn()) {
+            computer.think(this);
+        }
     }
 }
@@ -0,0 +1,350 @@
+import javafx.application.Platform;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The class ComputerPlayer plays one color of the
+ * chess board. When it is the computer's turn, a copy
+ * of the board's position is searched on a background
+ * thread, so the JavaFX Application Thread is never
+ * blocked, and the move found is played back on the
+ * board from the JavaFX Application Thread. The
+ * search uses every processor of the machine. If an
+ * opening book is set, a book move is played without
+ * searching while the position is in the book. The
+ * bitbases in Bitbase.FILE are used if the file exists.
+ *
+ * While the opponent thinks, the computer ponders: it
+ * searches the position after the reply it expects,
+ * without a time limit. If the opponent plays that
+ * reply, the search is given what is left of the move
+ * time counted from when pondering started, so the move
+ * comes sooner and is searched no less. Any other reply
+ * stops the search and a new one is started.
+ */
+public class ComputerPlayer {
+    /** The size of the transposition table in megabytes. */
+    private static final int TABLE_MEGABYTES = 64;
+
+    /** The color the computer plays. */
+    private final int color;
+
+    /** The time in milliseconds the computer searches for each move. */
+    private volatile long moveTime;
+
+    /** The engine searching on the background thread and its helpers. */
+    private final Engine engine;
+
+    /** The background thread the search runs on. */
+    private final ExecutorService executor;
+
+    /** The opening book the computer plays from, or null to always search. */
+    private volatile PolyglotBook book;
+
+    /** Picks between the book moves of a position. */
+    private final Random random = new Random();
+
+    /** Counts up every time a search is cancelled, so its move is not played. */
+    private int generation;
+
+    /** True if the computer searches while the opponent thinks. */
+    private boolean ponder = true;
+
+    /** The search of the position after the expected reply, or null if not pondering. */
+    private Ponder pondering;
+
+    /** The deadline of the search for the computer's move, or null if none was started. */
+    private AtomicLong thinking;
+
+    /**
+     * The class Ponder is the search of the position
+     * after the reply the computer expects. Apart from
+     * the deadline, it is only used on the JavaFX
+     * Application Thread.
+     */
+    private static final class Ponder {
+        /** The key of the position searched. */
+        final long key;
+
+        /** The time in nanoseconds pondering started. */
+        final long started;
+
+        /** The time in nanoseconds the search stops at, Long.MAX_VALUE until the reply is played. */
+        final AtomicLong deadline;
+
+        /** True once the opponent has played the expected reply. */
+        boolean hit;
+
+        /** True once the search is done. */
+        boolean done;
+
+        /** The move the search found. */
+        int move;
+
+        /** The reply expected to the move found. */
+        int reply;
+
+        /**
+         * The constructor for the class Ponder.
+         *
+         * @param key the key of the position searched
+         */
+        Ponder(long key) {
+            this.key = key;
+            started = System.nanoTime();
+            deadline = new AtomicLong(Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * The constructor for the class ComputerPlayer.
+     *
+     * @param color as int
+     * @param moveTime the time to search for each move in milliseconds
+     */
+    public ComputerPlayer(int color, long moveTime) {
+        this.color = color;
+        this.moveTime = moveTime;
+        engine = new Engine(Runtime.getRuntime().availableProcessors(), TABLE_MEGABYTES);
+
+        Path bitbases = Paths.get(Bitbase.FILE);
+
+        if (Files.exists(bitbases)) {
+            try {
+                engine.setBitbase(Bitbase.load(bitbases));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Computer Player");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the color the computer plays.
+     *
+     * @return color
+     */
+    public int getColor() {
+        return color;
+    }
+
+    /**
+     * Sets the time to search for each move.
+     *
+     * @param moveTime the moveTime to set in milliseconds
+     */
+    public void setMoveTime(long moveTime) {
+        this.moveTime = moveTime;
+    }
+
+    /**
+     * Sets whether the computer searches while the opponent
+     * thinks. Turning it off stops the search of the expected
+     * reply. It must be called on the JavaFX Application Thread.
+     *
+     * @param ponder the ponder to set
+     */
+    public void setPonder(boolean ponder) {
+        this.ponder = ponder;
+
+        if (!ponder && pondering != null && !pondering.hit) {
+            cancel();
+        }
+    }
+
+    /**
+     * Sets the network the computer evaluates positions
+     * with. It takes effect once the current search, if
+     * any, is done.
+     *
+     * @param network the network to set or null for the hand-written evaluation
+     */
+    public void setNetwork(Network network) {
+        executor.submit(() -> engine.setNetwork(network));
+    }
+
+    /**
+     * Sets the opening book the computer plays from.
+     *
+     * @param book the book to set or null to always search
+     */
+    public void setBook(PolyglotBook book) {
+        this.book = book;
+    }
+
+    /**
+     * This method starts searching the board's position on
+     * the background thread, unless the book has a move for
+     * it. When the search is done, the move is played on the
+     * board unless the search was cancelled in the meantime.
+     * If the computer was pondering on the reply just played,
+     * that search goes on instead; if it was pondering on
+     * another reply, that search is stopped first. It must be
+     * called on the JavaFX Application Thread.
+     *
+     * @param board as ChessBoard
+     */
+    public void think(ChessBoard board) {
+        Position position = new Position(board.getPosition());
+
+        if (pondering != null) {
+            if (pondering.key == position.getKey()) {
+                ponderHit(board);
+                return;
+            }
+            cancel();
+        }
+        int started = generation;
+        long key = position.getKey();
+        AtomicLong deadline = new AtomicLong(Long.MAX_VALUE);
+        thinking = deadline;
+
+        executor.submit(() -> {
+            long nanos = Math.min(moveTime, Long.MAX_VALUE / 4000000L) * 1000000L;
+
+            // The move time counts from here, unless the search was cancelled while it waited.
+            if (!deadline.compareAndSet(Long.MAX_VALUE, System.nanoTime() + nanos)) {
+                return;
+            }
+            PolyglotBook opening = book;
+            int move = opening == null ? Move.NONE : opening.pick(position, random);
+
+            if (move == Move.NONE) {
+                move = engine.search(position, deadline, Search.MAX_PLY);
+            }
+            int chosen = move;
+            int reply = move == Move.NONE ? Move.NONE : engine.expectedReply(position, move);
+
+            Platform.runLater(() -> {
+                // The move is only played on the position it was found for.
+                if (chosen != Move.NONE && started == generation && board.getPosition().getKey() == key) {
+                    play(board, chosen, reply);
+                }
+            });
+        });
+    }
+
+    /**
+     * This method plays the move on the board and, if the
+     * reply expected to it is known, starts pondering on it
+     * while the opponent thinks.
+     *
+     * @param board as ChessBoard
+     * @param move as int
+     * @param reply the reply expected or Move.NONE
+     */
+    private void play(ChessBoard board, int move, int reply) {
+        board.applyMove(move);
+
+        if (ponder && reply != Move.NONE && !board.isComputerTurn() && board.drawReason() == null) {
+            startPondering(board, reply);
+        }
+    }
+
+    /**
+     * This method starts searching the position after the
+     * reply on the background thread without a time limit.
+     * When the search is done, its move is kept until the
+     * opponent plays the reply, or played at once if the
+     * opponent already has.
+     *
+     * @param board as ChessBoard
+     * @param reply the reply expected
+     */
+    private void startPondering(ChessBoard board, int reply) {
+        Position position = new Position(board.getPosition());
+        position.makeMove(reply);
+        Ponder search = new Ponder(position.getKey());
+        pondering = search;
+
+        executor.submit(() -> {
+            int move = engine.search(position, search.deadline, Search.MAX_PLY);
+            int next = move == Move.NONE ? Move.NONE : engine.expectedReply(position, move);
+
+            Platform.runLater(() -> {
+                if (search != pondering) {
+                    return;
+                }
+                search.done = true;
+                search.move = move;
+                search.reply = next;
+
+                if (search.hit) {
+                    pondering = null;
+
+                    if (move != Move.NONE && board.getPosition().getKey() == search.key) {
+                        play(board, move, next);
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * This method is called when the opponent plays the reply
+     * the computer was pondering on. If the search is done,
+     * its move is played; otherwise it is told to stop once
+     * the move time has passed since pondering started.
+     *
+     * @param board as ChessBoard
+     */
+    private void ponderHit(ChessBoard board) {
+        Ponder search = pondering;
+        search.hit = true;
+
+        if (search.done) {
+            int started = generation;
+            pondering = null;
+
+            Platform.runLater(() -> {
+                if (search.move != Move.NONE && started == generation
+                        && board.getPosition().getKey() == search.key) {
+                    play(board, search.move, search.reply);
+                }
+            });
+        } else {
+            search.deadline.set(search.started + Math.min(moveTime, Long.MAX_VALUE / 4000000L) * 1000000L);
+        }
+    }
+
+    /**
+     * This method stops the current search and makes sure
+     * its move is never played, and stops pondering. A search
+     * still waiting for the background thread never starts.
+     * It must be called on the JavaFX Application Thread.
+     */
+    public void cancel() {
+        generation++;
+
+        // The deadlines stop the searches even if they have not started yet.
+        if (thinking != null) {
+            thinking.set(Long.MIN_VALUE);
+            thinking = null;
+        }
+        if (pondering != null) {
+            pondering.deadline.set(Long.MIN_VALUE);
+            pondering = null;
+        }
+        engine.stop();
+    }
+
+    /**
+     * This method cancels the current search and stops
+     * the background thread.
+     */
+    public void shutdown() {
+        cancel();
+        engine.shutdown();
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,322 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The class Engine runs a search on several threads
+ * at once, Lazy SMP style. Every thread searches the
+ * same position on its own copy of the board with its
+ * own move lists and history, and they share one
+ * transposition table, so each thread finds the
+ * results of the others. The main search runs on
+ * the calling thread and the helpers on a fixed pool
+ * of platform threads. The evaluation cache is shared
+ * the same way.
+ */
+public class Engine {
+    /** The table shared by all the threads. */
+    private final TranspositionTable table;
+
+    /** The evaluations shared by all the threads. */
+    private final EvalCache evalCache;
+
+    /** The search of each thread. The first one is the main search. */
+    private Search[] searches;
+
+    /** The network evaluating positions or null. */
+    private Network network;
+
+    /** The bitbases deciding simple endings or null. */
+    private Bitbase bitbase;
+
+    /** The platform threads the helpers run on. */
+    private ExecutorService helpers;
+
+    /** The size of the evaluation cache in megabytes. */
+    private static final int EVAL_CACHE_MEGABYTES = 16;
+
+    /**
+     * The constructor for the class Engine.
+     *
+     * @param threads the number of threads to search on
+     * @param megabytes the size of the transposition table
+     */
+    public Engine(int threads, int megabytes) {
+        table = new TranspositionTable(megabytes);
+        evalCache = new EvalCache(EVAL_CACHE_MEGABYTES);
+        setThreads(threads);
+    }
+
+    /**
+     * Sets the number of threads to search on. It must
+     * not be called while a search is running.
+     *
+     * @param threads the number of threads to set
+     */
+    public synchronized void setThreads(int threads) {
+        threads = Math.max(1, threads);
+
+        if (helpers != null) {
+            helpers.shutdown();
+        }
+
+        int features = searches == null ? Search.ALL_FEATURES : searches[0].getFeatures();
+
+        searches = new Search[threads];
+
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(table, evalCache, i);
+            searches[i].setFeatures(features);
+            searches[i].setNetwork(network);
+            searches[i].setBitbase(bitbase);
+        }
+        helpers = threads > 1 ? Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "Search Helper");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    /**
+     * Returns the number of threads the engine searches on.
+     *
+     * @return the number of threads
+     */
+    public int getThreads() {
+        return searches.length;
+    }
+
+    /**
+     * Sets the features of the search that are switched on
+     * for every thread, as a set of Search flags.
+     *
+     * @param features the features to set
+     */
+    public synchronized void setFeatures(int features) {
+        for (Search search : searches) {
+            search.setFeatures(features);
+        }
+    }
+
+    /**
+     * Sets the network that evaluates positions on every
+     * thread, or null to use the hand-written Evaluation.
+     * The table is cleared, since its entries hold the
+     * evaluations of the old one.
+     *
+     * @param network the network to set
+     */
+    public synchronized void setNetwork(Network network) {
+        this.network = network;
+        table.clear();
+
+        for (Search search : searches) {
+            search.setNetwork(network);
+        }
+    }
+
+    /**
+     * Sets the bitbases that decide simple endings on every
+     * thread, or null to search them.
+     *
+     * @param bitbase the bitbases to set
+     */
+    public synchronized void setBitbase(Bitbase bitbase) {
+        this.bitbase = bitbase;
+
+        for (Search search : searches) {
+            search.setBitbase(bitbase);
+        }
+    }
+
+    /**
+     * Returns the network evaluating positions or null.
+     *
+     * @return network
+     */
+    public Network getNetwork() {
+        return network;
+    }
+
+    /**
+     * Returns the evaluation cache as an EvalCache.
+     *
+     * @return evalCache
+     */
+    public EvalCache getEvalCache() {
+        return evalCache;
+    }
+
+    /**
+     * Returns the share of the evaluations of the last
+     * search on all threads that were found in the cache.
+     *
+     * @return the share from 0 to 1
+     */
+    public double getEvalHitRate() {
+        long hits = 0;
+        long misses = 0;
+
+        for (Search search : searches) {
+            hits += search.getEvalHits();
+            misses += search.getEvalMisses();
+        }
+        return hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+    }
+
+    /**
+     * Returns the transposition table as a TranspositionTable.
+     *
+     * @return table
+     */
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * This method searches the position on every thread for
+     * up to the time given and returns the best move of the
+     * main search. The helpers are stopped as soon as the main
+     * search is done, and the position is left unchanged.
+     *
+     * @param position as Position
+     * @param millis the time to search for
+     * @param maxDepth the deepest iteration to search
+     * @return the best move
+     */
+    public int search(Position position, long millis, int maxDepth) {
+        long nanos = Math.min(millis, Long.MAX_VALUE / 4000000L) * 1000000L;
+
+        return search(position, new AtomicLong(System.nanoTime() + nanos), maxDepth);
+    }
+
+    /**
+     * This method searches the position on every thread until
+     * System.nanoTime passes the deadline and returns the best
+     * move of the main search. The deadline can be changed
+     * while the search runs, so a search started with a
+     * deadline of Long.MAX_VALUE runs until it is given one.
+     *
+     * @param position as Position
+     * @param deadline the time in nanoseconds to stop at
+     * @param maxDepth the deepest iteration to search
+     * @return the best move
+     */
+    public synchronized int search(Position position, AtomicLong deadline, int maxDepth) {
+        List<Future<?>> running = new ArrayList<>();
+
+        table.newSearch();
+
+        for (Search search : searches) {
+            search.reset();
+        }
+
+        for (int i = 1; i < searches.length; i++) {
+            Search helper = searches[i];
+            Position copy = new Position(position);
+            running.add(helpers.submit(() -> helper.search(copy, deadline, maxDepth)));
+        }
+
+        int move = searches[0].search(position, deadline, maxDepth);
+
+        stop();
+
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                e.printStackTrace();
+            }
+        }
+        return move;
+    }
+
+    /**
+     * Returns the reply the last search expects to the move,
+     * read from the table, or Move.NONE if the table has no
+     * legal move for the position after it.
+     *
+     * @param position the position the move is played in
+     * @param move as int
+     * @return the expected reply
+     */
+    public int expectedReply(Position position, int move) {
+        position.makeMove(move);
+        int reply = TranspositionTable.move(table.probe(position.getKey()));
+
+        if (reply != Move.NONE && !MoveGenerator.isLegal(position, reply)) {
+            reply = Move.NONE;
+        }
+        position.unmakeMove();
+        return reply;
+    }
+
+    /**
+     * This method tells every thread of a running search
+     * to stop as soon as it can.
+     */
+    public void stop() {
+        for (Search search : searches) {
+            search.stop();
+        }
+    }
+
+    /**
+     * Returns the number of positions visited by all the
+     * threads in the last search.
+     *
+     * @return the nodes
+     */
+    public long getNodes() {
+        long nodes = 0;
+
+        for (Search search : searches) {
+            nodes += search.getNodes();
+        }
+        return nodes;
+    }
+
+    /**
+     * Returns the share of the nodes with a beta cutoff
+     * in the last search whose first move caused it.
+     *
+     * @return the share from 0 to 1
+     */
+    public double getFirstMoveCutoffRate() {
+        long cutoffs = 0;
+        long firstMoveCutoffs = 0;
+
+        for (Search search : searches) {
+            cutoffs += search.getCutoffs();
+            firstMoveCutoffs += search.getFirstMoveCutoffs();
+        }
+        return cutoffs == 0 ? 0.0 : (double) firstMoveCutoffs / cutoffs;
+    }
+
+    /**
+     * Returns the depth of the last iteration the main
+     * search finished.
+     *
+     * @return the depth
+     */
+    public int getCompletedDepth() {
+        return searches[0].getCompletedDepth();
+    }
+
+    /**
+     * This method stops the helper threads.
+     */
+    public void shutdown() {
+        stop();
+
+        if (helpers != null) {
+            helpers.shutdown();
+        }
+    }
+}
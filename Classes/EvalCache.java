@@ -0,0 +1,68 @@
+import java.util.Arrays;
+
+/**
+ * The class EvalCache remembers the static evaluation
+ * of positions by their Zobrist key, so a position
+ * reached again by a different order of moves is not
+ * evaluated again. It is shared by all search threads
+ * without locks: each slot is one long holding the top
+ * 48 bits of the key and the 16-bit evaluation, and a
+ * long is always written and read whole, so a thread
+ * never sees half of another thread's entry.
+ *
+ * The cache is direct-mapped: each key has one slot and
+ * a new evaluation simply replaces the old one.
+ */
+public class EvalCache {
+    /** The value probe returns for a key that is not in the cache. */
+    public static final int MISS = Integer.MIN_VALUE;
+
+    /** The slots, each holding the top 48 bits of the key and the evaluation. */
+    private final long[] slots;
+
+    /** The number of slots minus one, used to mask the key. */
+    private final int mask;
+
+    /**
+     * The constructor for the class EvalCache.
+     *
+     * @param megabytes the size of the cache, rounded down to a power of 2
+     */
+    public EvalCache(int megabytes) {
+        int size = (int) Math.min(1 << 30, Long.highestOneBit(Math.max(1, megabytes)) << 17);
+
+        slots = new long[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Returns the evaluation stored for the key or MISS.
+     *
+     * @param key as long
+     * @return the evaluation
+     */
+    public int probe(long key) {
+        long slot = slots[(int) key & mask];
+
+        return (slot ^ key) >>> 16 == 0 ? (short) slot : MISS;
+    }
+
+    /**
+     * This method stores the evaluation of the position
+     * with the key, which must fit in a short.
+     *
+     * @param key as long
+     * @param eval as int
+     */
+    public void store(long key, int eval) {
+        slots[(int) key & mask] = (key & ~0xFFFFL) | (eval & 0xFFFFL);
+    }
+
+    /**
+     * This method empties the cache. It must be called
+     * when the way positions are evaluated changes.
+     */
+    public void clear() {
+        Arrays.fill(slots, 0L);
+    }
+}
@@ -0,0 +1,386 @@
+/**
+ * The class Evaluation scores a position from the
+ * point of view of the side to move. A positive score
+ * means the side to move is better, in hundredths of
+ * a pawn.
+ *
+ * Every piece has a middlegame and an endgame value
+ * that depends on its square. The position keeps the
+ * sums of both up to date as pieces are added and
+ * removed, along with the game phase, so evaluating
+ * is only a blend of the two sums by the phase.
+ *
+ * Doubled, isolated, backward and passed pawns are
+ * scored too. The pawn structure changes rarely, so
+ * its score and passed pawns are kept in a PawnTable
+ * by the pawn key; only the king distances to the
+ * passed pawns are worked out every time.
+ */
+public final class Evaluation {
+    /** The value of each type of piece. The king is never captured. */
+    public static final int[] PIECE_VALUES = {100, 320, 330, 500, 900, 0};
+
+    /** The phase of the game with every piece on the board. */
+    public static final int MAX_PHASE = 24;
+
+    /** How much each type of piece adds to the phase. */
+    private static final int[] PHASE_WEIGHTS = {0, 1, 1, 2, 4, 0};
+
+    /** The middlegame value of each type of piece. */
+    private static final int[] MIDDLEGAME_VALUES = {82, 337, 365, 477, 1025, 0};
+
+    /** The endgame value of each type of piece. */
+    private static final int[] ENDGAME_VALUES = {94, 281, 297, 512, 936, 0};
+
+    /** The middlegame bonus of each type of white piece on each square, a8 first. */
+    private static final int[][] MIDDLEGAME_SQUARES = {
+        {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             98, 134,  61,  95,  68, 126,  34, -11,
+             -6,   7,  26,  31,  65,  56,  25, -20,
+            -14,  13,   6,  21,  23,  12,  17, -23,
+            -27,  -2,  -5,  12,  17,   6,  10, -25,
+            -26,  -4,  -4, -10,   3,   3,  33, -12,
+            -35,  -1, -20, -23, -15,  24,  38, -22,
+              0,   0,   0,   0,   0,   0,   0,   0
+        }, {
+           -167, -89, -34, -49,  61, -97, -15,-107,
+            -73, -41,  72,  36,  23,  62,   7, -17,
+            -47,  60,  37,  65,  84, 129,  73,  44,
+             -9,  17,  19,  53,  37,  69,  18,  22,
+            -13,   4,  16,  13,  28,  19,  21,  -8,
+            -23,  -9,  12,  10,  19,  17,  25, -16,
+            -29, -53, -12,  -3,  -1,  18, -14, -19,
+           -105, -21, -58, -33, -17, -28, -19, -23
+        }, {
+            -29,   4, -82, -37, -25, -42,   7,  -8,
+            -26,  16, -18, -13,  30,  59,  18, -47,
+            -16,  37,  43,  40,  35,  50,  37,  -2,
+             -4,   5,  19,  50,  37,  37,   7,  -2,
+             -6,  13,  13,  26,  34,  12,  10,   4,
+              0,  15,  15,  15,  14,  27,  18,  10,
+              4,  15,  16,   0,   7,  21,  33,   1,
+            -33,  -3, -14, -21, -13, -12, -39, -21
+        }, {
+             32,  42,  32,  51,  63,   9,  31,  43,
+             27,  32,  58,  62,  80,  67,  26,  44,
+             -5,  19,  26,  36,  17,  45,  61,  16,
+            -24, -11,   7,  26,  24,  35,  -8, -20,
+            -36, -26, -12,  -1,   9,  -7,   6, -23,
+            -45, -25, -16, -17,   3,   0,  -5, -33,
+            -44, -16, -20,  -9,  -1,  11,  -6, -71,
+            -19, -13,   1,  17,  16,   7, -37, -26
+        }, {
+            -28,   0,  29,  12,  59,  44,  43,  45,
+            -24, -39,  -5,   1, -16,  57,  28,  54,
+            -13, -17,   7,   8,  29,  56,  47,  57,
+            -27, -27, -16, -16,  -1,  17,  -2,   1,
+             -9, -26,  -9, -10,  -2,  -4,   3,  -3,
+            -14,   2, -11,  -2,  -5,   2,  14,   5,
+            -35,  -8,  11,   2,   8,  15,  -3,   1,
+             -1, -18,  -9,  10, -15, -25, -31, -50
+        }, {
+            -65,  23,  16, -15, -56, -34,   2,  13,
+             29,  -1, -20,  -7,  -8,  -4, -38, -29,
+             -9,  24,   2, -16, -20,   6,  22, -22,
+            -17, -20, -12, -27, -30, -25, -14, -36,
+            -49,  -1, -27, -39, -46, -44, -33, -51,
+            -14, -14, -22, -46, -44, -30, -15, -27,
+              1,   7,  -8, -64, -43, -16,   9,   8,
+            -15,  36,  12, -54,   8, -28,  24,  14
+        }
+    };
+
+    /** The endgame bonus of each type of white piece on each square, a8 first. */
+    private static final int[][] ENDGAME_SQUARES = {
+        {
+              0,   0,   0,   0,   0,   0,   0,   0,
+            178, 173, 158, 134, 147, 132, 165, 187,
+             94, 100,  85,  67,  56,  53,  82,  84,
+             32,  24,  13,   5,  -2,   4,  17,  17,
+             13,   9,  -3,  -7,  -7,  -8,   3,  -1,
+              4,   7,  -6,   1,   0,  -5,  -1,  -8,
+             13,   8,   8,  10,  13,   0,   2,  -7,
+              0,   0,   0,   0,   0,   0,   0,   0
+        }, {
+            -58, -38, -13, -28, -31, -27, -63, -99,
+            -25,  -8, -25,  -2,  -9, -25, -24, -52,
+            -24, -20,  10,   9,  -1,  -9, -19, -41,
+            -17,   3,  22,  22,  22,  11,   8, -18,
+            -18,  -6,  16,  25,  16,  17,   4, -18,
+            -23,  -3,  -1,  15,  10,  -3, -20, -22,
+            -42, -20, -10,  -5,  -2, -20, -23, -44,
+            -29, -51, -23, -15, -22, -18, -50, -64
+        }, {
+            -14, -21, -11,  -8,  -7,  -9, -17, -24,
+             -8,  -4,   7, -12,  -3, -13,  -4, -14,
+              2,  -8,   0,  -1,  -2,   6,   0,   4,
+             -3,   9,  12,   9,  14,  10,   3,   2,
+             -6,   3,  13,  19,   7,  10,  -3,  -9,
+            -12,  -3,   8,  10,  13,   3,  -7, -15,
+            -14, -18,  -7,  -1,   4,  -9, -15, -27,
+            -23,  -9, -23,  -5,  -9, -16,  -5, -17
+        }, {
+             13,  10,  18,  15,  12,  12,   8,   5,
+             11,  13,  13,  11,  -3,   3,   8,   3,
+              7,   7,   7,   5,   4,  -3,  -5,  -3,
+              4,   3,  13,   1,   2,   1,  -1,   2,
+              3,   5,   8,   4,  -5,  -6,  -8, -11,
+             -4,   0,  -5,  -1,  -7, -12,  -8, -16,
+             -6,  -6,   0,   2,  -9,  -9, -11,  -3,
+             -9,   2,   3,  -1,  -5, -13,   4, -20
+        }, {
+             -9,  22,  22,  27,  27,  19,  10,  20,
+            -17,  20,  32,  41,  58,  25,  30,   0,
+            -20,   6,   9,  49,  47,  35,  19,   9,
+              3,  22,  24,  45,  57,  40,  57,  36,
+            -18,  28,  19,  47,  31,  34,  39,  23,
+            -16, -27,  15,   6,   9,  17,  10,   5,
+            -22, -23, -30, -16, -16, -23, -36, -32,
+            -33, -28, -22, -43,  -5, -32, -20, -41
+        }, {
+            -74, -35, -18, -18, -11,  15,   4, -17,
+            -12,  17,  14,  17,  17,  38,  23,  11,
+             10,  17,  23,  15,  20,  45,  44,  13,
+             -8,  22,  24,  27,  26,  33,  26,   3,
+            -18,  -4,  21,  24,  27,  23,   9, -11,
+            -19,  -3,  11,  21,  23,  16,   7,  -9,
+            -27, -11,   4,  13,  14,   4,  -5, -17,
+            -53, -34, -21, -11, -28, -14, -24, -43
+        }
+    };
+
+    /** The penalty for a pawn with another pawn of its color in front of it. */
+    private static final int DOUBLED_MIDDLEGAME = 10;
+
+    /** The endgame penalty for a doubled pawn. */
+    private static final int DOUBLED_ENDGAME = 20;
+
+    /** The penalty for a pawn with no pawns of its color on the files next to it. */
+    private static final int ISOLATED_MIDDLEGAME = 5;
+
+    /** The endgame penalty for an isolated pawn. */
+    private static final int ISOLATED_ENDGAME = 15;
+
+    /** The penalty for a pawn that can not be defended by a pawn and can not safely move. */
+    private static final int BACKWARD_MIDDLEGAME = 8;
+
+    /** The endgame penalty for a backward pawn. */
+    private static final int BACKWARD_ENDGAME = 10;
+
+    /** The middlegame bonus for a passed pawn, by how many rows it has moved. */
+    private static final int[] PASSED_MIDDLEGAME = {0, 0, 5, 10, 20, 35, 60, 0};
+
+    /** The endgame bonus for a passed pawn, by how many rows it has moved. */
+    private static final int[] PASSED_ENDGAME = {0, 5, 10, 20, 35, 60, 100, 0};
+
+    /** The squares of each file. */
+    private static final long[] FILES = new long[8];
+
+    /** The squares of the files next to each file. */
+    private static final long[] ADJACENT_FILES = new long[8];
+
+    /** The squares in front of each square on its file, for each color. */
+    private static final long[][] FRONT_SPANS = new long[2][64];
+
+    /** The squares an enemy pawn must not be on for a pawn on each square to be passed. */
+    private static final long[][] PASSED_SPANS = new long[2][64];
+
+    /** The middlegame value of each piece on each square, negative for black. */
+    private static final int[][] MIDDLEGAME = new int[12][64];
+
+    /** The endgame value of each piece on each square, negative for black. */
+    private static final int[][] ENDGAME = new int[12][64];
+
+    static {
+        for (int file = 0; file < 8; file++) {
+            FILES[file] = 0x0101010101010101L << file;
+        }
+        for (int file = 0; file < 8; file++) {
+            ADJACENT_FILES[file] = (file > 0 ? FILES[file - 1] : 0L) | (file < 7 ? FILES[file + 1] : 0L);
+        }
+        for (int square = 0; square < 64; square++) {
+            int file = square & 7;
+            long above = square >= 8 ? -1L >>> (64 - (square & ~7)) : 0L;
+            long below = square < 56 ? -1L << ((square | 7) + 1) : 0L;
+
+            FRONT_SPANS[Position.WHITE][square] = FILES[file] & above;
+            FRONT_SPANS[Position.BLACK][square] = FILES[file] & below;
+            PASSED_SPANS[Position.WHITE][square] = (FILES[file] | ADJACENT_FILES[file]) & above;
+            PASSED_SPANS[Position.BLACK][square] = (FILES[file] | ADJACENT_FILES[file]) & below;
+        }
+        for (int type = Position.PAWN; type <= Position.KING; type++) {
+            for (int square = 0; square < 64; square++) {
+                int white = Position.piece(Position.WHITE, type);
+                int black = Position.piece(Position.BLACK, type);
+
+                MIDDLEGAME[white][square] = MIDDLEGAME_VALUES[type] + MIDDLEGAME_SQUARES[type][square];
+                ENDGAME[white][square] = ENDGAME_VALUES[type] + ENDGAME_SQUARES[type][square];
+                MIDDLEGAME[black][square] = -(MIDDLEGAME_VALUES[type] + MIDDLEGAME_SQUARES[type][square ^ 56]);
+                ENDGAME[black][square] = -(ENDGAME_VALUES[type] + ENDGAME_SQUARES[type][square ^ 56]);
+            }
+        }
+    }
+
+    /** This class only has static methods. */
+    private Evaluation() {}
+
+    /**
+     * Returns the score of the position for the side to move,
+     * working out the pawn structure without a table.
+     *
+     * @param position as Position
+     * @return the score
+     */
+    public static int evaluate(Position position) {
+        return evaluate(position, null);
+    }
+
+    /**
+     * Returns the score of the position for the side to move.
+     * The middlegame and endgame sums kept by the position and
+     * the pawn structure, found in the table if it is there,
+     * are blended by how many pieces are left.
+     *
+     * @param position as Position
+     * @param pawns the table of pawn structures or null
+     * @return the score
+     */
+    public static int evaluate(Position position, PawnTable pawns) {
+        PawnTable table = pawns != null ? pawns : new PawnTable(1);
+        long pawnKey = position.getPawnKey();
+        int index = table.probe(pawnKey);
+
+        if (index < 0) {
+            index = evaluatePawns(position, table);
+        }
+
+        int middlegame = position.getMiddlegame() + table.middlegame(index);
+        int endgame = position.getEndgame() + table.endgame(index)
+                    + passedKingDistance(position, table.passed(index, Position.WHITE), Position.WHITE)
+                    - passedKingDistance(position, table.passed(index, Position.BLACK), Position.BLACK);
+        int phase = Math.min(position.getPhase(), MAX_PHASE);
+        int score = (middlegame * phase + endgame * (MAX_PHASE - phase)) / MAX_PHASE;
+
+        return position.getSideToMove() == Position.WHITE ? score : -score;
+    }
+
+    /**
+     * This method scores the pawn structure of the position
+     * for white, stores it in the table and returns its slot.
+     *
+     * @param position as Position
+     * @param table as PawnTable
+     * @return the slot
+     */
+    private static int evaluatePawns(Position position, PawnTable table) {
+        int middlegame = 0;
+        int endgame = 0;
+        long[] passed = new long[2];
+
+        for (int color = Position.WHITE; color <= Position.BLACK; color++) {
+            long own = position.getPieces(color, Position.PAWN);
+            long enemy = position.getPieces(color ^ 1, Position.PAWN);
+            int sign = color == Position.WHITE ? 1 : -1;
+            long pawns = own;
+
+            while (pawns != 0) {
+                int square = Long.numberOfTrailingZeros(pawns);
+                int file = square & 7;
+                int rank = color == Position.WHITE ? 7 - (square >>> 3) : square >>> 3;
+                int stop = color == Position.WHITE ? square - 8 : square + 8;
+                long support = PASSED_SPANS[color ^ 1][stop] & ADJACENT_FILES[file];
+
+                if ((own & FRONT_SPANS[color][square]) != 0) {
+                    middlegame -= sign * DOUBLED_MIDDLEGAME;
+                    endgame -= sign * DOUBLED_ENDGAME;
+                } else if ((enemy & PASSED_SPANS[color][square]) == 0) {
+                    middlegame += sign * PASSED_MIDDLEGAME[rank];
+                    endgame += sign * PASSED_ENDGAME[rank];
+                    passed[color] |= 1L << square;
+                }
+                if ((own & ADJACENT_FILES[file]) == 0) {
+                    middlegame -= sign * ISOLATED_MIDDLEGAME;
+                    endgame -= sign * ISOLATED_ENDGAME;
+                } else if ((own & support) == 0 && (Attacks.pawn(color, stop) & enemy) != 0) {
+                    middlegame -= sign * BACKWARD_MIDDLEGAME;
+                    endgame -= sign * BACKWARD_ENDGAME;
+                }
+                pawns &= pawns - 1;
+            }
+        }
+        return table.store(position.getPawnKey(), middlegame, endgame,
+                           passed[Position.WHITE], passed[Position.BLACK]);
+    }
+
+    /**
+     * Returns the endgame bonus of the color's passed pawns
+     * for the enemy king being far from the square in front
+     * of them and its own king being close.
+     *
+     * @param position as Position
+     * @param passed the passed pawns of the color
+     * @param color as int
+     * @return the bonus
+     */
+    private static int passedKingDistance(Position position, long passed, int color) {
+        int ownKing = position.kingSquare(color);
+        int enemyKing = position.kingSquare(color ^ 1);
+        int bonus = 0;
+
+        while (passed != 0) {
+            int square = Long.numberOfTrailingZeros(passed);
+            int rank = color == Position.WHITE ? 7 - (square >>> 3) : square >>> 3;
+            int stop = color == Position.WHITE ? square - 8 : square + 8;
+
+            bonus += rank * (5 * distance(enemyKing, stop) - 2 * distance(ownKing, stop));
+            passed &= passed - 1;
+        }
+        return bonus;
+    }
+
+    /**
+     * Returns the number of king moves between two squares.
+     *
+     * @param a as int
+     * @param b as int
+     * @return the distance
+     */
+    private static int distance(int a, int b) {
+        return Math.max(Math.abs((a >>> 3) - (b >>> 3)), Math.abs((a & 7) - (b & 7)));
+    }
+
+    /**
+     * Returns the middlegame value of a piece on a square
+     * for white, negative for a black piece.
+     *
+     * @param piece as int
+     * @param square as int
+     * @return the value
+     */
+    public static int middlegame(int piece, int square) {
+        return MIDDLEGAME[piece][square];
+    }
+
+    /**
+     * Returns the endgame value of a piece on a square
+     * for white, negative for a black piece.
+     *
+     * @param piece as int
+     * @param square as int
+     * @return the value
+     */
+    public static int endgame(int piece, int square) {
+        return ENDGAME[piece][square];
+    }
+
+    /**
+     * Returns how much a piece adds to the game phase.
+     *
+     * @param piece as int
+     * @return the weight
+     */
+    public static int phase(int piece) {
+        return PHASE_WEIGHTS[Position.typeOf(piece)];
+    }
+}
@@ -1,6 +1,5 @@
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.scene.layout.GridPane;
 
 /**
  * The class Knight is a Piece.
@@ -65,63 +64,4 @@ public class Knight extends Piece {
     public ImageView getPiece() {
         return piece;
     }
-    
-    /**
-     * This method will be called when a piece has
-     * been selected. It will loop through the
-     * square array to set all the valid squares
-     * that the selected piece can legally move to.
-     * A knight can move in an "L" shape in any 
-     * direction. It can jump over other pieces.
-     * 
-     * @param squareArray as Square[]
-     */
-    @Override
-    public void validMoves(Square[] squareArray) {
-        int currentCol = GridPane.getColumnIndex(piece);
-        
-        for (int i = 0; i < squareArray.length; i++) {
-            if (squareArray[i].getPosition() == getPosition() - 17
-                && currentCol > GridPane.getColumnIndex(squareArray[i].getRec())
-                && !(squareArray[i].getHasAPiece())) {
-                Square.setGreenFill(squareArray[i]);
-                squareArray[i].setPieceCanMoveTo(true);
-            } else if (squareArray[i].getPosition() == getPosition() - 15
-                && currentCol < GridPane.getColumnIndex(squareArray[i].getRec())
-                && !(squareArray[i].getHasAPiece())) {
-                Square.setGreenFill(squareArray[i]);
-                squareArray[i].setPieceCanMoveTo(true);
-            } else if (squareArray[i].getPosition() == getPosition() - 10
-                && currentCol > GridPane.getColumnIndex(squareArray[i].getRec())
-                && !(squareArray[i].getHasAPiece())) {
-                Square.setGreenFill(squareArray[i]);
-                squareArray[i].setPieceCanMoveTo(true);
-            } else if (squareArray[i].getPosition() == getPosition() - 6
-                && currentCol < GridPane.getColumnIndex(squareArray[i].getRec())
-                && !(squareArray[i].getHasAPiece())) {
-                Square.setGreenFill(squareArray[i]);
-                squareArray[i].setPieceCanMoveTo(true);
-            } else if (squareArray[i].getPosition() == getPosition() + 6
-                && currentCol > GridPane.getColumnIndex(squareArray[i].getRec())
-                && !(squareArray[i].getHasAPiece())) {
-                Square.setGreenFill(squareArray[i]);
-                squareArray[i].setPieceCanMoveTo(true);
-            } else if (squareArray[i].getPosition() == getPosition() + 10
-                && currentCol < GridPane.getColumnIndex(squareArray[i].getRec())
-                && !(squareArray[i].getHasAPiece())) {
-                Square.setGreenFill(squareArray[i]);
-                squareArray[i].setPieceCanMoveTo(true);
-            } else if (squareArray[i].getPosition() == getPosition() + 15
-                && currentCol > GridPane.getColumnIndex(squareArray[i].getRec())
-                && !(squareArray[i].getHasAPiece())) {
-                Square.setGreenFill(squareArray[i]);
-                squareArray[i].setPieceCanMoveTo(true);
-            } else if (squareArray[i].getPosition() == getPosition() + 17
-                && currentCol < GridPane.getColumnIndex(squareArray[i].getRec())
-                && !(squareArray[i].getHasAPiece())) {
-                Square.setGreenFill(squareArray[i]);
-                squareArray[i].setPieceCanMoveTo(true);
-            }
-        }      
-    }
 }
@@ -0,0 +1,77 @@
+/**
+ * The class LegalMoves is a table of the legal moves
+ * of a position by the square they start from. The
+ * moves are generated once when the table is built,
+ * so the squares a piece can move to and the move
+ * from one square to another are then found without
+ * generating again. Captures are included like any
+ * other move.
+ */
+public class LegalMoves {
+    /** The squares each piece can move to, indexed by the square it is on. */
+    private final long[] targets;
+
+    /** The move from each square to each square or Move.NONE, indexed by from * 64 + to. */
+    private final int[] moves;
+
+    /** The number of legal moves. */
+    private final int size;
+
+    /**
+     * The constructor for the class LegalMoves.
+     *
+     * @param position as Position
+     */
+    public LegalMoves(Position position) {
+        MoveList list = new MoveList();
+
+        targets = new long[64];
+        moves = new int[64 * 64];
+        MoveGenerator.generate(position, list);
+        size = list.size();
+
+        for (int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            int from = Move.from(move);
+            int to = Move.to(move);
+
+            // A pawn reaching the last row is promoted to a queen.
+            if (!Move.isPromotion(move) || Move.promotionType(move) == Position.QUEEN) {
+                targets[from] |= 1L << to;
+                moves[from * 64 + to] = move;
+            }
+        }
+    }
+
+    /**
+     * Returns the squares the piece on the square can
+     * legally move to as a 64-bit board.
+     *
+     * @param from as int
+     * @return the target squares
+     */
+    public long targets(int from) {
+        return targets[from];
+    }
+
+    /**
+     * Returns the legal move from one square to another,
+     * or Move.NONE if there is none.
+     *
+     * @param from as int
+     * @param to as int
+     * @return the move
+     */
+    public int find(int from, int to) {
+        return moves[from * 64 + to];
+    }
+
+    /**
+     * Returns the number of legal moves.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+}
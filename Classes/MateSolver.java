@@ -0,0 +1,513 @@
+/**
+ * The class MateSolver looks for forced checkmates
+ * with depth-first proof-number search. The side to
+ * move is the attacker and only gives check; the
+ * defender answers with every move out of check. Each
+ * node has a proof number, the fewest positions that
+ * still have to be shown to be mates to prove it, and
+ * a disproof number, the fewest that have to be shown
+ * to escape. The search always expands the most
+ * proving child, and only leaves a node when its
+ * numbers pass the thresholds given by its parent.
+ *
+ * The numbers are kept in a table of fixed size that
+ * is overwritten when full. Mates in 1, 2, 3 and so on
+ * are tried in turn, so the first mate proved is the
+ * shortest. The number of plies left is part of each
+ * node's key, since a node may be a mate with more
+ * moves left but not with fewer.
+ */
+public class MateSolver {
+    /** The proof or disproof number of a node that is decided. */
+    private static final int INFINITE = 1 << 28;
+
+    /** The most moves a mate can take. */
+    public static final int MAX_MOVES = 32;
+
+    /** The number of nodes searched between checks of the clock. */
+    private static final int CHECK_INTERVAL = 1024;
+
+    /** Mixed into a node's key for every ply left, so each depth has its own entry. */
+    private static final long DEPTH_KEY = 0x9E3779B97F4A7C15L;
+
+    /** The most entries of the node table, the largest power of 2 an array can hold. */
+    private static final int MAX_ENTRIES = 1 << 30;
+
+    /** The keys of the nodes in the table. */
+    private final long[] keys;
+
+    /** The proof numbers of the nodes in the table. */
+    private final int[] proofs;
+
+    /** The disproof numbers of the nodes in the table. */
+    private final int[] disproofs;
+
+    /** The moves of each ply. */
+    private final MoveList[] lists;
+
+    /** The proof numbers of the children of each ply. */
+    private final int[][] childProofs;
+
+    /** The disproof numbers of the children of each ply. */
+    private final int[][] childDisproofs;
+
+    /** The legal moves the checks are picked from. */
+    private final MoveList legalMoves;
+
+    /** The moves of the mate found by the last solve. */
+    private final MoveList mateLine;
+
+    /** The color giving the mate. */
+    private int attacker;
+
+    /** The number of positions looked at by the last solve. */
+    private long nodes;
+
+    /** The time the last solve took in nanoseconds. */
+    private long time;
+
+    /** The time in nanoseconds when the solver stops. */
+    private long deadline;
+
+    /** Set when the solver should stop as soon as possible. */
+    private volatile boolean stopped;
+
+    /**
+     * The constructor for the class MateSolver. The node
+     * table holds 65536 entries per megabyte, rounded down
+     * to a power of 2 and at most MAX_ENTRIES.
+     *
+     * @param megabytes the size of the node table
+     */
+    public MateSolver(int megabytes) {
+        long wanted = (long) Math.max(1, megabytes) << 16;
+        int entries = (int) Long.highestOneBit(Math.min(wanted, MAX_ENTRIES));
+
+        keys = new long[entries];
+        proofs = new int[entries];
+        disproofs = new int[entries];
+        lists = MoveList.forPlies(2 * MAX_MOVES + 1);
+        childProofs = new int[2 * MAX_MOVES + 1][Move.MAX_MOVES];
+        childDisproofs = new int[2 * MAX_MOVES + 1][Move.MAX_MOVES];
+        legalMoves = new MoveList();
+        mateLine = new MoveList();
+    }
+
+    /**
+     * Returns the number of moves of the shortest mate the
+     * side to move can force, trying up to maxMoves, or 0 if
+     * none was found before the time ran out. The moves of
+     * the mate are kept in getMateLine.
+     *
+     * @param position as Position
+     * @param maxMoves the most moves to try
+     * @param millis the time to search in milliseconds
+     * @return the number of moves of the mate or 0
+     */
+    public int solve(Position position, int maxMoves, long millis) {
+        Position root = new Position(position);
+        long start = System.nanoTime();
+
+        attacker = root.getSideToMove();
+        nodes = 0;
+        stopped = false;
+        deadline = start + Math.min(millis, Long.MAX_VALUE / 4000000L) * 1000000L;
+        mateLine.clear();
+
+        try {
+            for (int moves = 1; moves <= Math.min(maxMoves, MAX_MOVES) && !stopped; moves++) {
+                int depth = 2 * moves - 1;
+
+                search(root, depth, 0, INFINITE, INFINITE);
+
+                int index = find(nodeKey(root, depth));
+
+                if (!stopped && index >= 0 && proofs[index] == 0) {
+                    findLine(root, depth);
+                    return moves;
+                }
+            }
+            return 0;
+        } finally {
+            time = System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * This method tells a running solve to stop and return.
+     * It can be called from any thread.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Returns the moves of the mate found by the last solve.
+     *
+     * @return the mate line
+     */
+    public MoveList getMateLine() {
+        return mateLine;
+    }
+
+    /**
+     * Returns the number of nodes searched by the last solve.
+     *
+     * @return nodes
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the nodes searched per second by the last solve.
+     *
+     * @return the nodes per second
+     */
+    public long getNodesPerSecond() {
+        return nodes * 1000000000L / Math.max(1, time);
+    }
+
+    /**
+     * Returns the time the last solve took in milliseconds.
+     *
+     * @return the time
+     */
+    public long getMillis() {
+        return time / 1000000L;
+    }
+
+    /**
+     * This method expands the most proving children of a
+     * node until its proof number reaches proofLimit or its
+     * disproof number reaches disproofLimit, then stores its
+     * numbers in the table.
+     *
+     * @param position as Position
+     * @param depth the plies left
+     * @param ply as int
+     * @param proofLimit as int
+     * @param disproofLimit as int
+     */
+    private void search(Position position, int depth, int ply, int proofLimit, int disproofLimit) {
+        boolean attacking = position.getSideToMove() == attacker;
+        MoveList moves = lists[ply];
+        int[] proof = childProofs[ply];
+        int[] disproof = childDisproofs[ply];
+        long key = nodeKey(position, depth);
+
+        generate(position, attacking, moves);
+
+        while (!stopped) {
+            int proofNumber = attacking ? INFINITE : 0;
+            int disproofNumber = attacking ? 0 : INFINITE;
+            int best = -1;
+            int second = INFINITE;
+
+            for (int i = 0; i < moves.size(); i++) {
+                position.makeMove(moves.get(i));
+                evaluateChild(position, depth - 1, ply + 1, proof, disproof, i);
+                position.unmakeMove();
+
+                int number = attacking ? proof[i] : disproof[i];
+
+                if (best < 0 || number < (attacking ? proof[best] : disproof[best])) {
+                    second = best < 0 ? second : (attacking ? proof[best] : disproof[best]);
+                    best = i;
+                } else if (number < second) {
+                    second = number;
+                }
+
+                if (attacking) {
+                    proofNumber = Math.min(proofNumber, proof[i]);
+                    disproofNumber = Math.min(INFINITE, disproofNumber + disproof[i]);
+                } else {
+                    proofNumber = Math.min(INFINITE, proofNumber + proof[i]);
+                    disproofNumber = Math.min(disproofNumber, disproof[i]);
+                }
+            }
+
+            if (proofNumber >= proofLimit || disproofNumber >= disproofLimit) {
+                store(key, proofNumber, disproofNumber);
+                return;
+            }
+
+            int childProofLimit;
+            int childDisproofLimit;
+
+            if (attacking) {
+                childProofLimit = Math.min(proofLimit, second + 1);
+                childDisproofLimit = disproofLimit - disproofNumber + disproof[best];
+            } else {
+                childProofLimit = proofLimit - proofNumber + proof[best];
+                childDisproofLimit = Math.min(disproofLimit, second + 1);
+            }
+
+            position.makeMove(moves.get(best));
+            search(position, depth - 1, ply + 1, childProofLimit, childDisproofLimit);
+            position.unmakeMove();
+        }
+    }
+
+    /**
+     * This method sets the numbers of a child from the table,
+     * or decides it if it is new: the defender is mated if
+     * it has no moves, and the attacker has failed if it has
+     * no plies left. Other new nodes start with a proof
+     * number of their number of moves for the defender.
+     *
+     * @param position the child
+     * @param depth the plies left at the child
+     * @param ply the ply of the child
+     * @param proof the proof numbers to set
+     * @param disproof the disproof numbers to set
+     * @param i the index of the child
+     */
+    private void evaluateChild(Position position, int depth, int ply, int[] proof, int[] disproof, int i) {
+        long key = nodeKey(position, depth);
+        int index = find(key);
+
+        if ((++nodes & (CHECK_INTERVAL - 1)) == 0 && System.nanoTime() > deadline) {
+            stopped = true;
+        }
+        if (index >= 0) {
+            proof[i] = proofs[index];
+            disproof[i] = disproofs[index];
+            return;
+        }
+
+        if (position.getSideToMove() == attacker) {
+            proof[i] = depth <= 0 ? INFINITE : 1;
+            disproof[i] = depth <= 0 ? 0 : 1;
+        } else {
+            MoveList moves = lists[ply];
+            generate(position, false, moves);
+
+            if (moves.size() == 0) {
+                proof[i] = 0;
+                disproof[i] = INFINITE;
+            } else {
+                proof[i] = depth <= 0 ? INFINITE : moves.size();
+                disproof[i] = depth <= 0 ? 0 : 1;
+            }
+        }
+        store(key, proof[i], disproof[i]);
+    }
+
+    /**
+     * This method fills the list with the checks of the
+     * attacker or every legal move of the defender, who is
+     * always in check.
+     *
+     * @param position as Position
+     * @param attacking as boolean
+     * @param moves as MoveList
+     */
+    private void generate(Position position, boolean attacking, MoveList moves) {
+        moves.clear();
+
+        if (!attacking) {
+            MoveGenerator.generateEvasions(position, moves);
+            return;
+        }
+
+        legalMoves.clear();
+        MoveGenerator.generate(position, legalMoves);
+
+        for (int i = 0; i < legalMoves.size(); i++) {
+            position.makeMove(legalMoves.get(i));
+
+            if (position.inCheck()) {
+                moves.add(legalMoves.get(i));
+            }
+            position.unmakeMove();
+        }
+    }
+
+    /**
+     * This method follows the proved children from the root
+     * to the mate and puts the moves in the mate line. The
+     * attacker plays the move proved with the fewest plies
+     * and the defender the one proved with the most. A node
+     * that was overwritten in the table is proved again.
+     *
+     * @param root as Position
+     * @param depth the plies of the mate
+     */
+    private void findLine(Position root, int depth) {
+        Position position = new Position(root);
+        MoveList moves = new MoveList();
+
+        for (int ply = 0; ply < depth; ply++) {
+            boolean attacking = position.getSideToMove() == attacker;
+            int move = Move.NONE;
+            int bestPlies = 0;
+
+            for (int attempt = 0; attempt < 2 && move == Move.NONE; attempt++) {
+                if (attempt > 0) {
+                    search(position, depth - ply, ply, INFINITE, INFINITE);
+                }
+
+                generate(position, attacking, moves);
+
+                for (int i = 0; i < moves.size(); i++) {
+                    position.makeMove(moves.get(i));
+                    int plies = provedIn(position, depth - ply - 1);
+                    position.unmakeMove();
+
+                    if (plies >= 0 && (move == Move.NONE || (attacking ? plies < bestPlies : plies > bestPlies))) {
+                        move = moves.get(i);
+                        bestPlies = plies;
+                    }
+                }
+            }
+
+            if (move == Move.NONE || stopped) {
+                return;
+            }
+            mateLine.add(move);
+            position.makeMove(move);
+
+            if (isMated(position)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the fewest plies left with which the table
+     * shows the node is a mate, trying depth and fewer plies
+     * by 2 at a time, 0 if the side to move is mated now, or
+     * -1 if it is not known to be a mate.
+     *
+     * @param position as Position
+     * @param depth the most plies left
+     * @return the plies or -1
+     */
+    private int provedIn(Position position, int depth) {
+        if (isMated(position)) {
+            return 0;
+        }
+
+        int plies = -1;
+
+        for (int left = depth; left > 0; left -= 2) {
+            int index = find(nodeKey(position, left));
+
+            if (index < 0 || proofs[index] != 0) {
+                break;
+            }
+            plies = left;
+        }
+        return plies;
+    }
+
+    /**
+     * Returns true if the side to move is checkmated.
+     *
+     * @param position as Position
+     * @return true if mated
+     */
+    private boolean isMated(Position position) {
+        legalMoves.clear();
+        MoveGenerator.generate(position, legalMoves);
+        return legalMoves.size() == 0 && position.inCheck();
+    }
+
+    /**
+     * Returns the key of a node: the position's key mixed
+     * with the plies left.
+     *
+     * @param position as Position
+     * @param depth as int
+     * @return the key
+     */
+    private static long nodeKey(Position position, int depth) {
+        return position.getKey() + DEPTH_KEY * (depth + 1);
+    }
+
+    /**
+     * Returns the index of the key in the table or -1.
+     *
+     * @param key as long
+     * @return the index
+     */
+    private int find(long key) {
+        int index = (int) key & (keys.length - 1);
+        return keys[index] == key ? index : -1;
+    }
+
+    /**
+     * This method stores the numbers of a node, replacing
+     * whatever node was in its entry.
+     *
+     * @param key as long
+     * @param proof as int
+     * @param disproof as int
+     */
+    private void store(long key, int proof, int disproof) {
+        int index = (int) key & (keys.length - 1);
+
+        keys[index] = key;
+        proofs[index] = proof;
+        disproofs[index] = disproof;
+    }
+
+    /**
+     * Looks for a mate from the command line and prints the
+     * shortest mate, the nodes searched and nodes per second.
+     *
+     * @param args [-moves n] [-time ms] [-hash mb] [fen]
+     */
+    public static void main(String[] args) {
+        int maxMoves = 8;
+        long millis = 60000;
+        int megabytes = 64;
+        StringBuilder fen = new StringBuilder();
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-moves")) {
+                maxMoves = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-time")) {
+                millis = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-hash")) {
+                megabytes = Integer.parseInt(args[++i]);
+            } else {
+                fen.append(args[i]).append(' ');
+            }
+        }
+
+        Position position = Position.fromFen(fen.length() > 0 ? fen.toString().trim() : Position.START_FEN);
+        MateSolver solver = new MateSolver(megabytes);
+        int moves = solver.solve(position, maxMoves, millis);
+
+        System.out.println(describe(solver, moves, maxMoves));
+    }
+
+    /**
+     * Returns the result of a solve as text, like "Mate in 2:
+     * d1h5 g7g6 h5e5" followed by the nodes and nodes per
+     * second.
+     *
+     * @param solver the solver that solved
+     * @param moves the number of moves of the mate or 0
+     * @param maxMoves the most moves that were tried
+     * @return the text
+     */
+    public static String describe(MateSolver solver, int moves, int maxMoves) {
+        StringBuilder text = new StringBuilder();
+
+        if (moves == 0) {
+            text.append("No mate in ").append(maxMoves).append(" or fewer found");
+        } else {
+            text.append("Mate in ").append(moves).append(':');
+
+            for (int i = 0; i < solver.getMateLine().size(); i++) {
+                text.append(' ').append(Move.toString(solver.getMateLine().get(i)));
+            }
+        }
+        text.append(String.format("%nNodes: %d, time: %d ms, nodes/sec: %d",
+                                  solver.getNodes(), solver.getMillis(), solver.getNodesPerSecond()));
+        return text.toString();
+    }
+}
@@ -1,6 +1,5 @@
 import javafx.scene.input.MouseEvent;
 import javafx.event.EventHandler;
-import javafx.scene.layout.GridPane;
 import java.io.Serializable;
 
 /**
@@ -16,120 +15,87 @@ public class MouseClick implements Serializable {
     Square hadPiecePreviously;
     
     /**
-     * This method first calls the method to reset
-     * all the square's strokes back to its default
-     * fill color. Then, it checks to see if there is
-     * currently a selected piece and if the square clicked
-     * on has a piece on it or not. If both conditions are met,
-     * the piece selected will move to the clicked on square.
-     * Clicking on just the squares will set a stroke color of
-     * either green or red. Green if the square has a piece and 
-     * red if the square doesn't have a piece.
+     * This method sets the handler of a square's mouse
+     * clicks. A click on a square handles it as clicked.
      * 
      * @param squareArray as Square[]
      * @param square as Square
      * @param pieceArray as Piece[]
-     * @param pane as GridPane
+     * @param board as ChessBoard
      */
     public void squareClicked(Square[] squareArray, Square square,
-                              Piece[] pieceArray, GridPane pane) {
+                              Piece[] pieceArray, ChessBoard board) {
         square.getRec().setOnMouseClicked(new EventHandler<MouseEvent>() {
             
             @Override 
             public void handle(MouseEvent e) {
-                Square.resetAllStrokes(squareArray);
-                Square.resetAllFills(squareArray);
-                
-                int rowDest;
-                int colDest;
-                
-                if (!square.getHasAPiece() && !square.getPieceCanMoveTo()) {
-                    Piece.resetAllSelectedPieces(pieceArray);
-                    Square.resetAllPieceCanMoveToSquares(squareArray);  
-                    Square.setRedStroke(square);
-                }
-                
-                if (square.getHasAPiece()) {
-                    Piece.resetAllSelectedPieces(pieceArray);
-                    Square.resetAllPieceCanMoveToSquares(squareArray);
-                    
-                    if (Piece.getSamePositionPiece(square, pieceArray).getTurn()) {
-                           Square.setGreenStroke(square);
-                           hadPiecePreviously = square;
-                           Piece.getSamePositionPiece(square, pieceArray).validMoves(squareArray);
-                           Piece.getSamePositionPiece(square, pieceArray).setIsSelected(true);                          
-                    } else {
-                        Square.setRedStroke(square);
-                    }
-                }
-                              
-                if (Piece.isThereSelectedPiece(pieceArray) && !(square.getHasAPiece())
-                    && square.getPieceCanMoveTo()) {
-                    rowDest = GridPane.getRowIndex(square.getRec());
-                    colDest = GridPane.getColumnIndex(square.getRec());
-                    
-                    pane.getChildren().remove(Piece.getSelectedPiece(pieceArray).getPiece());
-                    pane.add(Piece.getSelectedPiece(pieceArray).getPiece(), colDest, rowDest);
-                    
-                    Piece.getSelectedPiece(pieceArray).setPosition(square.getPosition());
-                    
-                    if (Piece.getSelectedPiece(pieceArray).getName().equals("pawn")) {
-                        Piece.getSelectedPiece(pieceArray).setFirstMove(false);
-                    }
-                    
-                    if (Piece.getSelectedPiece(pieceArray).getColor().equals("white")) {
-                        Piece.setBlackTurnTrue(pieceArray);
-                    } else {
-                        Piece.setWhiteTurnTrue(pieceArray);
-                    }
-                    
-                    hadPiecePreviously.setHasAPiece(false);
-                    square.setHasAPiece(true);
-                    Piece.resetAllSelectedPieces(pieceArray);
-                    Square.resetAllPieceCanMoveToSquares(squareArray);
-                }
+                clicked(squareArray, square, pieceArray, board);
             }
         });
     }
     
     /**
-     * This method first calls the methods to
-     * reset all strokes of square back to its default
-     * fill color and all selected status of pieces to false.
-     * Then, it will use a loop to find the same position of 
-     * the piece to the square it's on. That square will get
-     * a stroke of color green to indicate the piece has been
-     * clicked. Lastly, the piece that was clicked will get its
-     * selected status set to true.
+     * This method sets the handler of a piece's mouse
+     * clicks. A click on a piece handles the square it
+     * is on as clicked, so clicking an enemy piece that
+     * the selected piece can move to captures it.
      * 
      * @param piece as Piece
      * @param squareArray as Square[]
      * @param pieceArray as Piece[]
+     * @param board as ChessBoard
      */
-    public void pieceClicked(Piece piece, Square[] squareArray, Piece[] pieceArray) {
+    public void pieceClicked(Piece piece, Square[] squareArray, Piece[] pieceArray,
+                             ChessBoard board) {
         piece.getPiece().setOnMouseClicked(new EventHandler<MouseEvent>() {
             @Override
             public void handle(MouseEvent e) {
-                Square.resetAllStrokes(squareArray);
-                Square.resetAllFills(squareArray);
-                Piece.resetAllSelectedPieces(pieceArray);
-                Square.resetAllPieceCanMoveToSquares(squareArray);              
-                              
-                for (int i = 0; i < squareArray.length; i++) {
-                    if (squareArray[i].getPosition() == piece.getPosition()) {
-                        if (piece.getTurn()) {
-                            Square.setGreenStroke(squareArray[i]);
-                            hadPiecePreviously = squareArray[i];
-                            piece.setIsSelected(true);
-                            piece.validMoves(squareArray);
-                            break;
-                        } else {
-                            Square.setRedStroke(squareArray[i]);
-                            break;
-                        }                                   
-                    }
-                }              
+                clicked(squareArray, squareArray[piece.getPosition() - 1], pieceArray, board);
             }                    
         });
     }
+    
+    /**
+     * This method first calls the methods to reset all
+     * the square's strokes and fills. If the square can
+     * be moved to by the selected piece, the move is played,
+     * capturing a piece on the square if there is one.
+     * Otherwise, a piece of the side to move on the square
+     * is selected with a green stroke and the squares it
+     * can move to are filled green. Any other square gets
+     * a red stroke. The squares a piece can move to are
+     * looked up in the board's legal move table, so nothing
+     * is worked out on a click. The pieces can't be selected
+     * or moved while the computer is thinking about its move,
+     * even if one was selected before it started.
+     * 
+     * @param squareArray as Square[]
+     * @param square as Square
+     * @param pieceArray as Piece[]
+     * @param board as ChessBoard
+     */
+    private void clicked(Square[] squareArray, Square square, Piece[] pieceArray, ChessBoard board) {
+        Square.resetAllStrokes(squareArray);
+        Square.resetAllFills(squareArray);
+        
+        if (square.getPieceCanMoveTo() && hadPiecePreviously != null && !board.isComputerTurn()) {
+            board.applyMove(board.getLegalMoves().find(hadPiecePreviously.getPosition() - 1,
+                                                       square.getPosition() - 1));
+            return;
+        }
+        
+        Piece.resetAllSelectedPieces(pieceArray);
+        Square.resetAllPieceCanMoveToSquares(squareArray);
+        
+        Piece piece = square.getHasAPiece() ? board.getPieceAt(square.getPosition()) : null;
+        
+        if (piece != null && piece.getTurn() && !board.isComputerTurn()) {
+            Square.setGreenStroke(square);
+            hadPiecePreviously = square;
+            piece.setIsSelected(true);
+            piece.validMoves(board.getLegalMoves().targets(square.getPosition() - 1), squareArray);
+        } else {
+            Square.setRedStroke(square);
+        }
+    }
 }
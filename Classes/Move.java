@@ -0,0 +1,142 @@
+/**
+ * The class Move packs a move into the low 16 bits
+ * of an int, so moves can be kept in plain int arrays
+ * without creating any objects. Bits 0 to 5 hold the
+ * square the piece moves from, bits 6 to 11 the square
+ * it moves to and bits 12 to 15 the kind of move.
+ */
+public final class Move {
+    /** The value of no move. */
+    public static final int NONE = 0;
+
+    /** A move to an empty square. */
+    public static final int QUIET = 0;
+
+    /** A pawn moving 2 spaces from its starting row. */
+    public static final int DOUBLE_PUSH = 1;
+
+    /** The king castling on the king side. */
+    public static final int KING_CASTLE = 2;
+
+    /** The king castling on the queen side. */
+    public static final int QUEEN_CASTLE = 3;
+
+    /** A move that captures the piece on the target square. */
+    public static final int CAPTURE = 4;
+
+    /** A pawn capturing en passant. */
+    public static final int EN_PASSANT = 5;
+
+    /** The flag set on every promotion. Its low 2 bits pick the type. */
+    public static final int PROMOTION = 8;
+
+    /** The most moves a chess position can have, rounded up. */
+    public static final int MAX_MOVES = 256;
+
+    /** This class only has static methods. */
+    private Move() {}
+
+    /**
+     * Returns the packed move.
+     *
+     * @param from as int
+     * @param to as int
+     * @param flags as int
+     * @return the move
+     */
+    public static int create(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    /**
+     * Returns the packed promotion of a pawn to the type,
+     * which must be a knight, bishop, rook or queen.
+     *
+     * @param from as int
+     * @param to as int
+     * @param type as int
+     * @param capture as boolean
+     * @return the move
+     */
+    public static int promotion(int from, int to, int type, boolean capture) {
+        int flags = PROMOTION | (type - Position.KNIGHT) | (capture ? CAPTURE : 0);
+
+        return create(from, to, flags);
+    }
+
+    /**
+     * Returns the square the piece moves from.
+     *
+     * @param move as int
+     * @return from
+     */
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    /**
+     * Returns the square the piece moves to.
+     *
+     * @param move as int
+     * @return to
+     */
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /**
+     * Returns the kind of move.
+     *
+     * @param move as int
+     * @return flags
+     */
+    public static int flags(int move) {
+        return (move >>> 12) & 15;
+    }
+
+    /**
+     * Returns true if the move captures a piece.
+     *
+     * @param move as int
+     * @return true or false
+     */
+    public static boolean isCapture(int move) {
+        return (flags(move) & CAPTURE) != 0;
+    }
+
+    /**
+     * Returns true if a pawn is promoted by the move.
+     *
+     * @param move as int
+     * @return true or false
+     */
+    public static boolean isPromotion(int move) {
+        return (flags(move) & PROMOTION) != 0;
+    }
+
+    /**
+     * Returns the type a pawn is promoted to or Position.EMPTY.
+     *
+     * @param move as int
+     * @return the type
+     */
+    public static int promotionType(int move) {
+        return isPromotion(move) ? Position.KNIGHT + (flags(move) & 3) : Position.EMPTY;
+    }
+
+    /**
+     * Returns the move in coordinate notation, like "e2e4"
+     * or "e7e8q".
+     *
+     * @param move as int
+     * @return the move as a String
+     */
+    public static String toString(int move) {
+        String name = Position.squareName(from(move)) + Position.squareName(to(move));
+
+        if (isPromotion(move)) {
+            name += "pnbrqk".charAt(promotionType(move));
+        }
+        return name;
+    }
+}
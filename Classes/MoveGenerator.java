@@ -0,0 +1,512 @@
+/**
+ * The class MoveGenerator finds the legal moves of
+ * the side to move in a Position. The pieces giving
+ * check and the pinned pieces are found once, and
+ * each piece's targets are masked by them, so no
+ * move has to be played to test if it leaves the
+ * king in check. A king in check has its own
+ * generator that only looks at the moves that can
+ * stop the check.
+ */
+public final class MoveGenerator {
+    /** The types a pawn can be promoted to. */
+    private static final int[] PROMOTIONS = {
+        Position.QUEEN, Position.ROOK, Position.BISHOP, Position.KNIGHT
+    };
+
+    /** Generate every legal move. */
+    private static final int ALL = 0;
+
+    /** Generate the captures and queen promotions. */
+    private static final int CAPTURES = 1;
+
+    /** Generate the moves that are not generated as captures. */
+    private static final int QUIETS = 2;
+
+    /** The first and last rows, where pawns are promoted. */
+    private static final long LAST_ROWS = 0xFF000000000000FFL;
+
+    /** This class only has static methods. */
+    private MoveGenerator() {}
+
+    /**
+     * This method clears the list and fills it with every
+     * legal move of the side to move in the position.
+     *
+     * @param position as Position
+     * @param moves as MoveList
+     */
+    public static void generate(Position position, MoveList moves) {
+        generate(position, moves, ALL);
+    }
+
+    /**
+     * This method clears the list and fills it with the
+     * legal captures of the side to move in the position,
+     * including en passant, and its promotions. Pawns are
+     * only promoted to a queen. The quiescence search only
+     * looks at these moves.
+     *
+     * @param position as Position
+     * @param moves as MoveList
+     */
+    public static void generateCaptures(Position position, MoveList moves) {
+        generate(position, moves, CAPTURES);
+    }
+
+    /**
+     * This method clears the list and fills it with the
+     * legal moves of the side to move that generateCaptures
+     * leaves out: quiet moves, castling and promotions to
+     * a knight, bishop or rook.
+     *
+     * @param position as Position
+     * @param moves as MoveList
+     */
+    public static void generateQuiets(Position position, MoveList moves) {
+        generate(position, moves, QUIETS);
+    }
+
+    /**
+     * This method clears the list and fills it with the legal
+     * moves of the side to move, which must be in check. Only
+     * king moves, captures of the checker and moves onto the
+     * squares between it and the king are tried, and only
+     * king moves if there are two checkers.
+     *
+     * @param position as Position
+     * @param moves as MoveList
+     */
+    public static void generateEvasions(Position position, MoveList moves) {
+        int us = position.getSideToMove();
+        long checkers = position.attackersTo(position.kingSquare(us), position.getOccupied())
+                      & position.getColor(us ^ 1);
+
+        generateEvasions(position, moves, ALL, checkers);
+    }
+
+    /**
+     * This method clears the list and fills it with the legal
+     * moves of the side to move of the kind given by the mode.
+     * If the side to move is in check, only the evasions are
+     * generated.
+     *
+     * @param position as Position
+     * @param moves as MoveList
+     * @param mode ALL, CAPTURES or QUIETS
+     */
+    private static void generate(Position position, MoveList moves, int mode) {
+        int us = position.getSideToMove();
+        int them = us ^ 1;
+        int king = position.kingSquare(us);
+        long own = position.getColor(us);
+        long enemy = position.getColor(them);
+        long occupied = position.getOccupied();
+        long checkers = position.attackersTo(king, occupied) & enemy;
+
+        if (checkers != 0) {
+            generateEvasions(position, moves, mode, checkers);
+            return;
+        }
+
+        long pinned = pinned(position, us, king);
+        long allowed = mode == CAPTURES ? enemy : mode == QUIETS ? ~occupied : ~own;
+        long targets;
+
+        moves.clear();
+        addKingMoves(position, king, allowed, moves);
+
+        long pawns = position.getPieces(us, Position.PAWN);
+
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+
+            targets = (Attacks.pawnPushes(us, from, occupied) & (mode == CAPTURES ? LAST_ROWS : -1L))
+                    | (Attacks.pawn(us, from) & enemy & (mode == QUIETS ? LAST_ROWS : -1L));
+
+            if ((pinned & (1L << from)) != 0) {
+                targets &= Attacks.line(king, from);
+            }
+            addPawnMoves(from, targets, enemy, mode, moves);
+
+            if (mode != QUIETS && position.getEnPassant() != Position.EMPTY
+                && (Attacks.pawn(us, from) & (1L << position.getEnPassant())) != 0
+                && isLegalEnPassant(position, from, king)) {
+                moves.add(Move.create(from, position.getEnPassant(), Move.EN_PASSANT));
+            }
+            pawns &= pawns - 1;
+        }
+
+        for (int type = Position.KNIGHT; type <= Position.QUEEN; type++) {
+            long pieces = position.getPieces(us, type);
+
+            while (pieces != 0) {
+                int from = Long.numberOfTrailingZeros(pieces);
+
+                targets = attacks(type, from, occupied) & allowed;
+
+                if ((pinned & (1L << from)) != 0) {
+                    targets &= Attacks.line(king, from);
+                }
+                addMoves(from, targets, enemy, moves);
+                pieces &= pieces - 1;
+            }
+        }
+
+        if (mode != CAPTURES) {
+            addCastling(position, moves);
+        }
+    }
+
+    /**
+     * This method clears the list and fills it with the
+     * evasions of the kind given by the mode. Instead of
+     * masking the moves of every piece, it looks from the
+     * checker and each square between it and the king for
+     * the pieces that can move there. A pinned piece can
+     * never stop a check, so it is left out.
+     *
+     * @param position as Position
+     * @param moves as MoveList
+     * @param mode ALL, CAPTURES or QUIETS
+     * @param checkers the pieces giving check
+     */
+    private static void generateEvasions(Position position, MoveList moves, int mode, long checkers) {
+        int us = position.getSideToMove();
+        int king = position.kingSquare(us);
+        long enemy = position.getColor(us ^ 1);
+        long occupied = position.getOccupied();
+        long allowed = mode == CAPTURES ? enemy : mode == QUIETS ? ~occupied : ~position.getColor(us);
+
+        moves.clear();
+        addKingMoves(position, king, allowed, moves);
+
+        if (Long.bitCount(checkers) > 1) {
+            return;
+        }
+
+        int checker = Long.numberOfTrailingZeros(checkers);
+        long pawns = position.getPieces(us, Position.PAWN);
+        long movable = position.getColor(us) & ~(1L << king) & ~pinned(position, us, king);
+        long capturers = position.attackersTo(checker, occupied) & movable;
+
+        while (capturers != 0) {
+            int from = Long.numberOfTrailingZeros(capturers);
+
+            if ((pawns & (1L << from)) != 0) {
+                addPawnMoves(from, checkers & (mode == QUIETS ? LAST_ROWS : -1L), enemy, mode, moves);
+            } else if (mode != QUIETS) {
+                moves.add(Move.create(from, checker, Move.CAPTURE));
+            }
+            capturers &= capturers - 1;
+        }
+
+        int enPassant = position.getEnPassant();
+
+        if (mode != QUIETS && enPassant != Position.EMPTY
+            && ((1L << (us == Position.WHITE ? enPassant + 8 : enPassant - 8)) == checkers
+                || (Attacks.between(king, checker) & (1L << enPassant)) != 0)) {
+            long capturing = Attacks.pawn(us ^ 1, enPassant) & pawns & movable;
+
+            while (capturing != 0) {
+                int from = Long.numberOfTrailingZeros(capturing);
+
+                if (isLegalEnPassant(position, from, king)) {
+                    moves.add(Move.create(from, enPassant, Move.EN_PASSANT));
+                }
+                capturing &= capturing - 1;
+            }
+        }
+
+        long blocks = Attacks.between(king, checker) & (mode == CAPTURES ? LAST_ROWS : -1L);
+        long queens = position.getPieces(us, Position.QUEEN);
+        int forward = us == Position.WHITE ? -8 : 8;
+
+        while (blocks != 0) {
+            int to = Long.numberOfTrailingZeros(blocks);
+            long blockers = (Attacks.knight(to) & position.getPieces(us, Position.KNIGHT))
+                          | (Attacks.bishop(to, occupied) & (position.getPieces(us, Position.BISHOP) | queens))
+                          | (Attacks.rook(to, occupied) & (position.getPieces(us, Position.ROOK) | queens));
+
+            blockers &= mode == CAPTURES ? 0L : movable;
+
+            while (blockers != 0) {
+                moves.add(Move.create(Long.numberOfTrailingZeros(blockers), to, Move.QUIET));
+                blockers &= blockers - 1;
+            }
+
+            int from = to - forward;
+
+            if ((pawns & movable & (1L << from)) != 0) {
+                addPawnMoves(from, 1L << to, enemy, mode, moves);
+            } else if ((occupied & (1L << from)) == 0 && (to >>> 3) == (us == Position.WHITE ? 4 : 3)
+                       && (pawns & movable & (1L << (from - forward))) != 0 && mode != CAPTURES) {
+                moves.add(Move.create(from - forward, to, Move.DOUBLE_PUSH));
+            }
+            blocks &= blocks - 1;
+        }
+    }
+
+    /**
+     * Adds the moves of the king onto the allowed squares
+     * that no enemy piece attacks. The king is taken off the
+     * board first, so it can not step back along the line of
+     * a slider checking it.
+     *
+     * @param position as Position
+     * @param king the square of the king
+     * @param allowed as long
+     * @param moves as MoveList
+     */
+    private static void addKingMoves(Position position, int king, long allowed, MoveList moves) {
+        long enemy = position.getColor(position.getSideToMove() ^ 1);
+        long occupied = position.getOccupied() ^ (1L << king);
+        long targets = Attacks.king(king) & allowed;
+
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+
+            if ((position.attackersTo(to, occupied) & enemy) == 0) {
+                moves.add(Move.create(king, to, (enemy & (1L << to)) != 0 ? Move.CAPTURE : Move.QUIET));
+            }
+            targets &= targets - 1;
+        }
+    }
+
+    /**
+     * Returns true if the move is legal for the side to move
+     * in the position. Any 16 bits are accepted, so a move
+     * read from the transposition table or remembered from
+     * another position can be checked before it is searched
+     * without generating all the moves.
+     *
+     * @param position as Position
+     * @param move as int
+     * @return true or false
+     */
+    public static boolean isLegal(Position position, int move) {
+        int us = position.getSideToMove();
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flags = Move.flags(move);
+        int piece = position.pieceAt(from);
+        long enemy = position.getColor(us ^ 1);
+        long occupied = position.getOccupied();
+
+        if (move == Move.NONE || piece == Position.EMPTY || Position.colorOf(piece) != us
+            || (position.getColor(us) & (1L << to)) != 0) {
+            return false;
+        }
+
+        int type = Position.typeOf(piece);
+        boolean capture = (enemy & (1L << to)) != 0;
+
+        if (flags == Move.KING_CASTLE || flags == Move.QUEEN_CASTLE) {
+            boolean kingSide = flags == Move.KING_CASTLE;
+
+            return type == Position.KING && from == (us == Position.WHITE ? 60 : 4)
+                && to == from + (kingSide ? 2 : -2) && !position.inCheck()
+                && canCastle(position, kingSide);
+        }
+        if (flags == Move.EN_PASSANT) {
+            return type == Position.PAWN && to == position.getEnPassant()
+                && (Attacks.pawn(us, from) & (1L << to)) != 0
+                && isLegalEnPassant(position, from, position.kingSquare(us));
+        }
+        if (Move.isCapture(move) != capture || !Move.isPromotion(move)
+            && flags != Move.QUIET && flags != Move.DOUBLE_PUSH && flags != Move.CAPTURE) {
+            return false;
+        }
+        if (type == Position.PAWN) {
+            long targets = capture ? Attacks.pawn(us, from) & enemy : Attacks.pawnPushes(us, from, occupied);
+            boolean lastRow = (LAST_ROWS & (1L << to)) != 0;
+
+            if ((targets & (1L << to)) == 0 || Move.isPromotion(move) != lastRow
+                || (flags == Move.DOUBLE_PUSH) != (Math.abs(to - from) == 16)) {
+                return false;
+            }
+        } else if (Move.isPromotion(move) || flags == Move.DOUBLE_PUSH
+                   || (attacks(type, from, occupied) & (1L << to)) == 0) {
+            return false;
+        }
+
+        position.makeMove(move);
+        boolean legal = !position.isAttacked(position.kingSquare(us), us ^ 1);
+        position.unmakeMove();
+        return legal;
+    }
+
+    /**
+     * Returns the pieces of the color that are pinned to
+     * their king on the square by an enemy rook, bishop
+     * or queen.
+     *
+     * @param position as Position
+     * @param us as int
+     * @param king as int
+     * @return the pinned pieces
+     */
+    public static long pinned(Position position, int us, int king) {
+        int them = us ^ 1;
+        long queens = position.getPieces(them, Position.QUEEN);
+        long snipers = (Attacks.rook(king, 0L) & (position.getPieces(them, Position.ROOK) | queens))
+                     | (Attacks.bishop(king, 0L) & (position.getPieces(them, Position.BISHOP) | queens));
+        long pinned = 0L;
+
+        while (snipers != 0) {
+            long blockers = Attacks.between(king, Long.numberOfTrailingZeros(snipers))
+                          & position.getOccupied();
+
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0) {
+                pinned |= blockers & position.getColor(us);
+            }
+            snipers &= snipers - 1;
+        }
+        return pinned;
+    }
+
+    /**
+     * Returns true if the pawn on the square can capture en
+     * passant without leaving its king in check. Both pawns
+     * leave their row, so the board after the capture is
+     * checked for attacks on the king.
+     *
+     * @param position as Position
+     * @param from as int
+     * @param king as int
+     * @return true or false
+     */
+    private static boolean isLegalEnPassant(Position position, int from, int king) {
+        int us = position.getSideToMove();
+        int to = position.getEnPassant();
+        long captured = 1L << (us == Position.WHITE ? to + 8 : to - 8);
+        long occupied = (position.getOccupied() ^ (1L << from) ^ captured) | (1L << to);
+
+        return (position.attackersTo(king, occupied) & position.getColor(us ^ 1) & ~captured) == 0;
+    }
+
+    /**
+     * Returns the squares a piece of the type, other than
+     * a pawn, attacks from the square.
+     *
+     * @param type as int
+     * @param square as int
+     * @param occupied as long
+     * @return the attacked squares
+     */
+    public static long attacks(int type, int square, long occupied) {
+        switch (type) {
+            case Position.KNIGHT:
+                return Attacks.knight(square);
+            case Position.BISHOP:
+                return Attacks.bishop(square, occupied);
+            case Position.ROOK:
+                return Attacks.rook(square, occupied);
+            case Position.QUEEN:
+                return Attacks.queen(square, occupied);
+            default:
+                return Attacks.king(square);
+        }
+    }
+
+    /**
+     * Adds a move from the square to each target.
+     *
+     * @param from as int
+     * @param targets as long
+     * @param enemy as long
+     * @param moves as MoveList
+     */
+    private static void addMoves(int from, long targets, long enemy, MoveList moves) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+
+            moves.add(Move.create(from, to, (enemy & (1L << to)) != 0 ? Move.CAPTURE : Move.QUIET));
+            targets &= targets - 1;
+        }
+    }
+
+    /**
+     * Adds a pawn move from the square to each target.
+     * A move onto the first or last row is added once
+     * for each type the pawn can be promoted to, only for
+     * the queen in CAPTURES mode and for the others in
+     * QUIETS mode.
+     *
+     * @param from as int
+     * @param targets as long
+     * @param enemy as long
+     * @param mode ALL, CAPTURES or QUIETS
+     * @param moves as MoveList
+     */
+    private static void addPawnMoves(int from, long targets, long enemy, int mode, MoveList moves) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            boolean capture = (enemy & (1L << to)) != 0;
+
+            if (to < 8 || to > 55) {
+                for (int promotion : PROMOTIONS) {
+                    if (mode == ALL || (mode == CAPTURES) == (promotion == Position.QUEEN)) {
+                        moves.add(Move.promotion(from, to, promotion, capture));
+                    }
+                }
+            } else if (capture) {
+                moves.add(Move.create(from, to, Move.CAPTURE));
+            } else {
+                moves.add(Move.create(from, to, Math.abs(to - from) == 16 ? Move.DOUBLE_PUSH
+                                                                         : Move.QUIET));
+            }
+            targets &= targets - 1;
+        }
+    }
+
+    /**
+     * Adds the castling moves of the side to move. The squares
+     * between the king and rook must be empty and the king may
+     * not be in check, pass through or land on an attacked square.
+     *
+     * @param position as Position
+     * @param moves as MoveList
+     */
+    private static void addCastling(Position position, MoveList moves) {
+        int us = position.getSideToMove();
+        int rights = position.getCastlingRights();
+        int king = us == Position.WHITE ? 60 : 4;
+        int kingSide = us == Position.WHITE ? Position.WHITE_KING_SIDE : Position.BLACK_KING_SIDE;
+        int queenSide = us == Position.WHITE ? Position.WHITE_QUEEN_SIDE : Position.BLACK_QUEEN_SIDE;
+
+        if ((rights & (kingSide | queenSide)) == 0 || position.isAttacked(king, us ^ 1)) {
+            return;
+        }
+        if (canCastle(position, true)) {
+            moves.add(Move.create(king, king + 2, Move.KING_CASTLE));
+        }
+        if (canCastle(position, false)) {
+            moves.add(Move.create(king, king - 2, Move.QUEEN_CASTLE));
+        }
+    }
+
+    /**
+     * Returns true if the side to move, not being in check,
+     * can castle on the king side or the queen side. The
+     * right must be left, the squares between the king and
+     * rook empty and the squares the king passes not attacked.
+     *
+     * @param position as Position
+     * @param kingSide as boolean
+     * @return true or false
+     */
+    private static boolean canCastle(Position position, boolean kingSide) {
+        int us = position.getSideToMove();
+        int king = us == Position.WHITE ? 60 : 4;
+        int step = kingSide ? 1 : -1;
+        int right = kingSide ? (us == Position.WHITE ? Position.WHITE_KING_SIDE : Position.BLACK_KING_SIDE)
+                             : (us == Position.WHITE ? Position.WHITE_QUEEN_SIDE : Position.BLACK_QUEEN_SIDE);
+        long between = kingSide ? 3L << (king + 1) : 7L << (king - 3);
+
+        return (position.getCastlingRights() & right) != 0
+            && (position.getOccupied() & between) == 0
+            && !position.isAttacked(king + step, us ^ 1)
+            && !position.isAttacked(king + 2 * step, us ^ 1);
+    }
+}
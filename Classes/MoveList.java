@@ -0,0 +1,82 @@
+/**
+ * The class MoveList is a reusable buffer of packed
+ * moves. A search keeps one list for each ply and
+ * clears it before generating, so finding and
+ * walking through moves creates no garbage.
+ */
+public class MoveList {
+    /** The packed moves. */
+    private final int[] moves;
+
+    /** The number of moves in the list. */
+    private int size;
+
+    /**
+     * The constructor for the class MoveList.
+     */
+    public MoveList() {
+        moves = new int[Move.MAX_MOVES];
+    }
+
+    /**
+     * Returns one list for each ply up to the depth.
+     *
+     * @param plies as int
+     * @return the lists
+     */
+    public static MoveList[] forPlies(int plies) {
+        MoveList[] lists = new MoveList[plies];
+
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new MoveList();
+        }
+        return lists;
+    }
+
+    /**
+     * Adds a move to the end of the list.
+     *
+     * @param move as int
+     */
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    /**
+     * Returns the move at the index.
+     *
+     * @param index as int
+     * @return the move
+     */
+    public int get(int index) {
+        return moves[index];
+    }
+
+    /**
+     * Swaps the moves at two indexes.
+     *
+     * @param i as int
+     * @param j as int
+     */
+    public void swap(int i, int j) {
+        int move = moves[i];
+        moves[i] = moves[j];
+        moves[j] = move;
+    }
+
+    /**
+     * Returns the number of moves in the list.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Empties the list so it can be filled again.
+     */
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,291 @@
+/**
+ * The class MovePicker hands out the legal moves of a
+ * position one at a time in the order they are most
+ * likely to cause a cutoff. The moves are made in
+ * stages, so when the first move refutes the position
+ * the rest are never generated:
+ *
+ * the move from the transposition table,
+ * the captures that do not lose material, best victim
+ * and cheapest attacker first,
+ * the two killer moves of the ply,
+ * the counter move to the opponent's last move,
+ * the quiet moves by their history score,
+ * and last the captures that lose material.
+ *
+ * A search keeps one picker for each ply and reuses it.
+ */
+public class MovePicker {
+    /** Try the move from the transposition table. */
+    private static final int HASH = 0;
+
+    /** Generate and score the captures. */
+    private static final int GENERATE_CAPTURES = 1;
+
+    /** Hand out the captures that do not lose material. */
+    private static final int GOOD_CAPTURES = 2;
+
+    /** Try the first killer move. */
+    private static final int FIRST_KILLER = 3;
+
+    /** Try the second killer move. */
+    private static final int SECOND_KILLER = 4;
+
+    /** Try the counter move. */
+    private static final int COUNTER = 5;
+
+    /** Generate and score the quiet moves. */
+    private static final int GENERATE_QUIETS = 6;
+
+    /** Hand out the quiet moves. */
+    private static final int QUIETS = 7;
+
+    /** Hand out the captures that lose material. */
+    private static final int BAD_CAPTURES = 8;
+
+    /** No moves are left. */
+    private static final int DONE = 9;
+
+    /** The moves of the current stage. */
+    private final MoveList moves;
+
+    /** The score of each move of the current stage. */
+    private final int[] scores;
+
+    /** The captures put off until after the quiet moves. */
+    private final MoveList badCaptures;
+
+    /** The gains of the static exchange evaluation, reused for every capture. */
+    private final int[] exchangeGains;
+
+    /** The position the moves are picked for. */
+    private Position position;
+
+    /** The move from the transposition table or Move.NONE. */
+    private int hashMove;
+
+    /** The first killer move of the ply. */
+    private int firstKiller;
+
+    /** The second killer move of the ply. */
+    private int secondKiller;
+
+    /** The counter move to the opponent's last move. */
+    private int counterMove;
+
+    /** The history scores of the side to move, indexed by from and to. */
+    private int[][] history;
+
+    /** True if only the good captures are handed out. */
+    private boolean capturesOnly;
+
+    /** The current stage. */
+    private int stage;
+
+    /** The index of the next move of the current stage. */
+    private int index;
+
+    /**
+     * The constructor for the class MovePicker.
+     */
+    public MovePicker() {
+        moves = new MoveList();
+        scores = new int[Move.MAX_MOVES];
+        badCaptures = new MoveList();
+        exchangeGains = new int[StaticExchange.MAX_GAINS];
+    }
+
+    /**
+     * This method starts picking every legal move of the
+     * position. The killers, counter move and hash move
+     * may be Move.NONE or moves that are not legal here;
+     * they are checked before they are handed out.
+     *
+     * @param position as Position
+     * @param hashMove as int
+     * @param killers the two killer moves of the ply
+     * @param counterMove as int
+     * @param history the history scores of the side to move
+     */
+    public void init(Position position, int hashMove, int[] killers, int counterMove,
+                     int[][] history) {
+        this.position = position;
+        this.hashMove = hashMove;
+        this.firstKiller = killers[0];
+        this.secondKiller = killers[1];
+        this.counterMove = counterMove;
+        this.history = history;
+        capturesOnly = false;
+        stage = HASH;
+        badCaptures.clear();
+    }
+
+    /**
+     * This method starts picking only the captures and
+     * queen promotions of the position that do not lose
+     * material, for the quiescence search.
+     *
+     * @param position as Position
+     */
+    public void initCaptures(Position position) {
+        this.position = position;
+        hashMove = Move.NONE;
+        capturesOnly = true;
+        stage = GENERATE_CAPTURES;
+        badCaptures.clear();
+    }
+
+    /**
+     * Returns the next move or Move.NONE once every move
+     * has been handed out.
+     *
+     * @return the move
+     */
+    public int next() {
+        while (true) {
+            switch (stage++) {
+                case HASH:
+                    if (MoveGenerator.isLegal(position, hashMove)) {
+                        return hashMove;
+                    }
+                    break;
+                case GENERATE_CAPTURES:
+                    MoveGenerator.generateCaptures(position, moves);
+                    scoreCaptures();
+                    break;
+                case GOOD_CAPTURES:
+                    while (index < moves.size()) {
+                        int move = pickBest();
+
+                        if (move == hashMove) {
+                            continue;
+                        }
+                        if (StaticExchange.evaluate(position, move, exchangeGains) >= 0) {
+                            stage--;
+                            return move;
+                        }
+                        if (!capturesOnly) {
+                            badCaptures.add(move);
+                        }
+                    }
+                    if (capturesOnly) {
+                        stage = DONE;
+                    }
+                    break;
+                case FIRST_KILLER:
+                    if (isQuietCandidate(firstKiller)) {
+                        return firstKiller;
+                    }
+                    firstKiller = Move.NONE;
+                    break;
+                case SECOND_KILLER:
+                    if (secondKiller != firstKiller && isQuietCandidate(secondKiller)) {
+                        return secondKiller;
+                    }
+                    secondKiller = Move.NONE;
+                    break;
+                case COUNTER:
+                    if (counterMove != firstKiller && counterMove != secondKiller
+                        && isQuietCandidate(counterMove)) {
+                        return counterMove;
+                    }
+                    counterMove = Move.NONE;
+                    break;
+                case GENERATE_QUIETS:
+                    MoveGenerator.generateQuiets(position, moves);
+                    scoreQuiets();
+                    break;
+                case QUIETS:
+                    while (index < moves.size()) {
+                        int move = pickBest();
+
+                        if (move != hashMove && move != firstKiller && move != secondKiller
+                            && move != counterMove) {
+                            stage--;
+                            return move;
+                        }
+                    }
+                    index = 0;
+                    break;
+                case BAD_CAPTURES:
+                    if (index < badCaptures.size()) {
+                        stage--;
+                        return badCaptures.get(index++);
+                    }
+                    break;
+                default:
+                    stage = DONE;
+                    return Move.NONE;
+            }
+        }
+    }
+
+    /**
+     * Returns true if the move is a legal quiet move that is
+     * not the hash move, so it can be tried as a killer or
+     * counter move. A move that is not tried is set to
+     * Move.NONE, so it is not skipped among the quiet moves.
+     *
+     * @param move as int
+     * @return true or false
+     */
+    private boolean isQuietCandidate(int move) {
+        return move != Move.NONE && move != hashMove && !Move.isCapture(move)
+            && !Move.isPromotion(move) && MoveGenerator.isLegal(position, move);
+    }
+
+    /**
+     * This method scores the captures by the value of the
+     * piece taken, then by the cheapest piece taking it.
+     * Promotions add the value of the new piece.
+     */
+    private void scoreCaptures() {
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int victim = Move.flags(move) == Move.EN_PASSANT ? Position.PAWN
+                       : position.pieceAt(Move.to(move)) == Position.EMPTY ? Position.EMPTY
+                       : Position.typeOf(position.pieceAt(Move.to(move)));
+            int score = victim == Position.EMPTY ? 0 : Evaluation.PIECE_VALUES[victim] * 8;
+
+            if (Move.isPromotion(move)) {
+                score += Evaluation.PIECE_VALUES[Move.promotionType(move)] * 8;
+            }
+            scores[i] = score - Position.typeOf(position.pieceAt(Move.from(move)));
+        }
+        index = 0;
+    }
+
+    /**
+     * This method scores the quiet moves by their history.
+     */
+    private void scoreQuiets() {
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+
+            scores[i] = history[Move.from(move)][Move.to(move)];
+        }
+        index = 0;
+    }
+
+    /**
+     * Swaps the best scored move left to the index,
+     * moves the index past it and returns it.
+     *
+     * @return the move
+     */
+    private int pickBest() {
+        int best = index;
+
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+
+        int score = scores[best];
+        scores[best] = scores[index];
+        scores[index] = score;
+        moves.swap(index, best);
+        return moves.get(index++);
+    }
+}
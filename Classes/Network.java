@@ -0,0 +1,250 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The class Network holds the weights of an efficiently
+ * updatable neural network that scores a position. Its
+ * input is one of 768 features for each piece: the
+ * piece and its square, seen from white's side and
+ * from black's side with the board flipped. The first
+ * layer sums the weights of the features into an
+ * Accumulator, which is updated as pieces are added
+ * and removed instead of being summed again for every
+ * position. The output layer clips the accumulator of
+ * the side to move and of the other side and takes the
+ * dot product with its weights.
+ *
+ * The sums are done with the Vector API by NetworkVectors
+ * when the program is run with
+ * --add-modules jdk.incubator.vector, and with plain
+ * loops otherwise. The sum of the output layer is kept
+ * in a long, so a large hidden layer can not overflow.
+ *
+ * The weights are read from a little-endian file: the
+ * int MAGIC, the int size of the hidden layer, the
+ * shorts of the feature weights (768 rows of the hidden
+ * size), the shorts of the hidden biases, the shorts of
+ * the output weights (two times the hidden size) and
+ * the int output bias.
+ */
+public class Network {
+    /** The first 4 bytes of a network file, "NNUE". */
+    public static final int MAGIC = 0x4E4E5545;
+
+    /** The number of input features of each side. */
+    public static final int FEATURES = 768;
+
+    /** The value the hidden layer is clipped to, which stands for 1. */
+    public static final int HIDDEN_SCALE = 255;
+
+    /** The value of an output weight that stands for 1. */
+    public static final int OUTPUT_SCALE = 64;
+
+    /** The number of hundredths of a pawn an output of 1 stands for. */
+    public static final int EVAL_SCALE = 400;
+
+    /** True if the Vector API was added, so NetworkVectors can be loaded. */
+    private static final boolean VECTORS = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    /** The size of the hidden layer. */
+    private final int hiddenSize;
+
+    /** The hidden layer weights of each feature, one row per feature. */
+    private final int[] featureWeights;
+
+    /** The biases of the hidden layer. */
+    private final int[] hiddenBiases;
+
+    /** The output weights, first for the side to move, then for the other side. */
+    private final int[] outputWeights;
+
+    /** The bias of the output. */
+    private final int outputBias;
+
+    /**
+     * The constructor for the class Network.
+     *
+     * @param hiddenSize as int
+     * @param featureWeights as int[]
+     * @param hiddenBiases as int[]
+     * @param outputWeights as int[]
+     * @param outputBias as int
+     */
+    public Network(int hiddenSize, int[] featureWeights, int[] hiddenBiases, int[] outputWeights,
+                   int outputBias) {
+        if (featureWeights.length != FEATURES * hiddenSize || hiddenBiases.length != hiddenSize
+            || outputWeights.length != 2 * hiddenSize) {
+            throw new IllegalArgumentException("The weights do not match the hidden size " + hiddenSize);
+        }
+        for (int weight : outputWeights) {
+            if (weight != (short) weight) {
+                throw new IllegalArgumentException("The output weight " + weight + " does not fit in a short");
+            }
+        }
+        this.hiddenSize = hiddenSize;
+        this.featureWeights = featureWeights;
+        this.hiddenBiases = hiddenBiases;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+    }
+
+    /**
+     * This method reads a network from a file.
+     *
+     * @param path as Path
+     * @return the network
+     * @throws IOException if the file can not be read or is not a network
+     */
+    public static Network load(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+            throw new IOException(path + " is not a network file");
+        }
+
+        int hiddenSize = buffer.getInt();
+
+        if (hiddenSize <= 0 || buffer.remaining() != (FEATURES + 3) * hiddenSize * 2 + 4) {
+            throw new IOException(path + " has the wrong size for a hidden layer of " + hiddenSize);
+        }
+
+        int[] featureWeights = readShorts(buffer, FEATURES * hiddenSize);
+        int[] hiddenBiases = readShorts(buffer, hiddenSize);
+        int[] outputWeights = readShorts(buffer, 2 * hiddenSize);
+
+        return new Network(hiddenSize, featureWeights, hiddenBiases, outputWeights, buffer.getInt());
+    }
+
+    /**
+     * This method writes the network to a file in the
+     * format load reads.
+     *
+     * @param path as Path
+     * @throws IOException if the file can not be written
+     */
+    public void save(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8 + (FEATURES + 3) * hiddenSize * 2 + 4)
+                                      .order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(MAGIC).putInt(hiddenSize);
+
+        for (int[] weights : new int[][] {featureWeights, hiddenBiases, outputWeights}) {
+            for (int weight : weights) {
+                buffer.putShort((short) weight);
+            }
+        }
+        buffer.putInt(outputBias);
+        Files.write(path, buffer.array());
+    }
+
+    /**
+     * Returns the shorts read from the buffer as ints.
+     *
+     * @param buffer as ByteBuffer
+     * @param count as int
+     * @return the values
+     */
+    private static int[] readShorts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+
+        for (int i = 0; i < count; i++) {
+            values[i] = buffer.getShort();
+        }
+        return values;
+    }
+
+    /**
+     * Returns the size of the hidden layer.
+     *
+     * @return hiddenSize
+     */
+    public int getHiddenSize() {
+        return hiddenSize;
+    }
+
+    /**
+     * Returns the biases of the hidden layer, which an
+     * empty board's accumulator starts from.
+     *
+     * @return hiddenBiases
+     */
+    public int[] getHiddenBiases() {
+        return hiddenBiases;
+    }
+
+    /**
+     * Returns the index of the input feature of a piece on
+     * a square, seen from the side of the perspective.
+     *
+     * @param perspective the color whose side the board is seen from
+     * @param piece as int
+     * @param square as int
+     * @return the feature
+     */
+    public static int feature(int perspective, int piece, int square) {
+        if (perspective == Position.BLACK) {
+            piece = Position.piece(Position.colorOf(piece) ^ 1, Position.typeOf(piece));
+            square ^= 56;
+        }
+        return piece * 64 + square;
+    }
+
+    /**
+     * This method adds the weights of a feature to a hidden
+     * layer, or subtracts them if sign is -1.
+     *
+     * @param hidden as int[]
+     * @param feature as int
+     * @param sign 1 or -1
+     */
+    public void update(int[] hidden, int feature, int sign) {
+        int offset = feature * hiddenSize;
+
+        if (VECTORS) {
+            NetworkVectors.update(hidden, featureWeights, offset, sign);
+            return;
+        }
+        for (int i = 0; i < hiddenSize; i++) {
+            hidden[i] += sign * featureWeights[offset + i];
+        }
+    }
+
+    /**
+     * Returns the score for the side to move from the hidden
+     * layers of both sides, in hundredths of a pawn.
+     *
+     * @param us the hidden layer of the side to move
+     * @param them the hidden layer of the other side
+     * @return the score
+     */
+    public int evaluate(int[] us, int[] them) {
+        long output = outputBias + dot(us, 0) + dot(them, hiddenSize);
+
+        return (int) (output * EVAL_SCALE / (HIDDEN_SCALE * OUTPUT_SCALE));
+    }
+
+    /**
+     * Returns the dot product of the hidden layer, clipped
+     * to 0 to HIDDEN_SCALE, with the output weights from
+     * the offset.
+     *
+     * @param hidden as int[]
+     * @param offset as int
+     * @return the sum
+     */
+    private long dot(int[] hidden, int offset) {
+        if (VECTORS) {
+            return NetworkVectors.dot(hidden, outputWeights, offset, HIDDEN_SCALE);
+        }
+
+        long sum = 0;
+
+        for (int i = 0; i < hiddenSize; i++) {
+            sum += (long) Math.max(0, Math.min(HIDDEN_SCALE, hidden[i])) * outputWeights[offset + i];
+        }
+        return sum;
+    }
+}
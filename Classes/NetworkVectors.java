@@ -0,0 +1,85 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The class NetworkVectors does the sums of a Network
+ * with the Vector API. It is the only class that uses
+ * the jdk.incubator.vector module, and Network only
+ * loads it when the module was added with
+ * --add-modules jdk.incubator.vector; otherwise the
+ * network sums with plain loops.
+ */
+public final class NetworkVectors {
+    /** The widest vectors of ints the processor supports. */
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    /**
+     * The most products each lane adds up before the lanes
+     * are added into a long. A clipped value times a short
+     * weight is at most 255 * 32768, and 256 of them still
+     * fit in an int.
+     */
+    private static final int LANE_PRODUCTS = 256;
+
+    /** This class only has static methods. */
+    private NetworkVectors() {}
+
+    /**
+     * This method adds the weights from the offset to the
+     * hidden layer, or subtracts them if sign is -1.
+     *
+     * @param hidden as int[]
+     * @param weights as int[]
+     * @param offset as int
+     * @param sign 1 or -1
+     */
+    public static void update(int[] hidden, int[] weights, int offset, int sign) {
+        int bound = SPECIES.loopBound(hidden.length);
+        int i = 0;
+
+        for (; i < bound; i += SPECIES.length()) {
+            IntVector row = IntVector.fromArray(SPECIES, weights, offset + i);
+            IntVector sums = IntVector.fromArray(SPECIES, hidden, i);
+
+            (sign > 0 ? sums.add(row) : sums.sub(row)).intoArray(hidden, i);
+        }
+        for (; i < hidden.length; i++) {
+            hidden[i] += sign * weights[offset + i];
+        }
+    }
+
+    /**
+     * Returns the dot product of the hidden layer, clipped
+     * to 0 to the clip, with the weights from the offset.
+     * The weights must fit in a short.
+     *
+     * @param hidden as int[]
+     * @param weights as int[]
+     * @param offset as int
+     * @param clip the most a hidden value counts for
+     * @return the sum
+     */
+    public static long dot(int[] hidden, int[] weights, int offset, int clip) {
+        int bound = SPECIES.loopBound(hidden.length);
+        long sum = 0;
+        int i = 0;
+
+        while (i < bound) {
+            int end = Math.min(bound, i + LANE_PRODUCTS * SPECIES.length());
+            IntVector sums = IntVector.zero(SPECIES);
+
+            for (; i < end; i += SPECIES.length()) {
+                IntVector clipped = IntVector.fromArray(SPECIES, hidden, i).max(0).min(clip);
+
+                sums = clipped.mul(IntVector.fromArray(SPECIES, weights, offset + i)).add(sums);
+            }
+            for (int lane = 0; lane < SPECIES.length(); lane++) {
+                sum += sums.lane(lane);
+            }
+        }
+        for (; i < hidden.length; i++) {
+            sum += (long) Math.max(0, Math.min(clip, hidden[i])) * weights[offset + i];
+        }
+        return sum;
+    }
+}
@@ -88,66 +88,4 @@ public class Pawn extends Piece {
     public ImageView getPiece() {
         return piece;
     }
-    
-    /**
-     * This method will be called when a piece has
-     * been selected. It will loop through the
-     * square array to set all the valid squares
-     * that the selected piece can legally move to.
-     * A white pawn can only move up and a black pawn
-     * can only move down. On the pawn's first turn,
-     * they can move 2 spaces and after that they
-     * are limited to only moving 1 space.
-     * 
-     * @param squareArray as Square[]
-     */
-    @Override
-    public void validMoves(Square[] squareArray) {
-        int upMoves = 8;
-        int downMoves = 8;
-        
-        if (getColor().equals("white")) {
-            for (int i = 63; i >= 0; i--) {
-                if (squareArray[i].getPosition() == getPosition() - upMoves) {
-                    if (squareArray[i].getHasAPiece()) {
-                       break;
-                    }
-                    Square.setGreenFill(squareArray[i]);
-                    squareArray[i].setPieceCanMoveTo(true);
-                    upMoves += 8;
-                }
-                if (firstMove) {
-                    if (upMoves > 16) {
-                        break;
-                    }
-                } else if (!firstMove) {
-                    if (upMoves > 8) {
-                        break;
-                    }
-                }
-            }
-        }
-        
-        if (getColor().equals("black")) {
-            for (int i = 0; i < squareArray.length; i++) {
-                if (squareArray[i].getPosition() == getPosition() + downMoves) {
-                    if (squareArray[i].getHasAPiece()) {
-                       break;
-                    }
-                    Square.setGreenFill(squareArray[i]);
-                    squareArray[i].setPieceCanMoveTo(true);
-                    downMoves += 8;
-                }
-                if (firstMove) {
-                    if (downMoves > 16) {
-                        break;
-                    }
-                } else if (!firstMove) {
-                    if (downMoves > 8) {
-                        break;
-                    }
-                }
-            }
-        }
-    }
 }
@@ -0,0 +1,105 @@
+/**
+ * The class PawnTable remembers the evaluation of pawn
+ * structures by the pawn key of the position. The pawns
+ * change in only a few moves of a search, so most
+ * positions find their pawn structure here and skip
+ * working it out again. Each search thread has its own
+ * table, so no locks are needed.
+ *
+ * The table is direct-mapped: each key has one slot and
+ * a new structure simply replaces the old one. An empty
+ * slot reads as key 0 with all scores 0, which is right
+ * for the one structure whose key is 0, no pawns at all.
+ */
+public class PawnTable {
+    /** The pawn key of each slot. */
+    private final long[] keys;
+
+    /** The middlegame score in the low 16 bits and the endgame score in the high 16 bits. */
+    private final int[] scores;
+
+    /** The passed pawns of white and black, two longs for each slot. */
+    private final long[] passed;
+
+    /** The number of slots minus one, used to mask the key. */
+    private final int mask;
+
+    /**
+     * The constructor for the class PawnTable.
+     *
+     * @param entries the number of slots, rounded down to a power of 2
+     */
+    public PawnTable(int entries) {
+        int size = Integer.highestOneBit(Math.max(1, entries));
+
+        keys = new long[size];
+        scores = new int[size];
+        passed = new long[size * 2];
+        mask = size - 1;
+    }
+
+    /**
+     * Returns the slot of the key or -1 if the structure
+     * is not in the table.
+     *
+     * @param key as long
+     * @return the slot
+     */
+    public int probe(long key) {
+        int index = (int) key & mask;
+
+        return keys[index] == key ? index : -1;
+    }
+
+    /**
+     * This method stores the evaluation of a pawn structure
+     * and returns its slot.
+     *
+     * @param key as long
+     * @param middlegame the middlegame score for white
+     * @param endgame the endgame score for white
+     * @param whitePassed the passed white pawns
+     * @param blackPassed the passed black pawns
+     * @return the slot
+     */
+    public int store(long key, int middlegame, int endgame, long whitePassed, long blackPassed) {
+        int index = (int) key & mask;
+
+        keys[index] = key;
+        scores[index] = (middlegame & 0xFFFF) | (endgame << 16);
+        passed[index * 2] = whitePassed;
+        passed[index * 2 + 1] = blackPassed;
+        return index;
+    }
+
+    /**
+     * Returns the middlegame score for white of a slot.
+     *
+     * @param index as int
+     * @return the score
+     */
+    public int middlegame(int index) {
+        return (short) scores[index];
+    }
+
+    /**
+     * Returns the endgame score for white of a slot.
+     *
+     * @param index as int
+     * @return the score
+     */
+    public int endgame(int index) {
+        return scores[index] >> 16;
+    }
+
+    /**
+     * Returns the passed pawns of the color of a slot.
+     *
+     * @param index as int
+     * @param color as int
+     * @return the squares
+     */
+    public long passed(int index, int color) {
+        return passed[index * 2 + color];
+    }
+}
@@ -0,0 +1,179 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * The class Perft is a command line tool that counts
+ * the positions reached after every sequence of moves
+ * to a given depth. The counts are compared against
+ * known results to check the move generator, and the
+ * time taken shows how fast it is. The moves at the
+ * root are split across a fork-join pool and the counts
+ * of subtrees can be cached by the key of their position.
+ *
+ * Usage: java Perft depth [fen] [-divide] [-threads n] [-hash mb]
+ */
+public class Perft {
+    /** The keys of the cached subtrees, xored with their data. */
+    private final long[] hashKeys;
+
+    /** The node counts of the cached subtrees shifted left 8 bits, with the depth below. */
+    private final long[] hashData;
+
+    /**
+     * The constructor for the class Perft.
+     *
+     * @param hashMegabytes the size of the subtree cache or 0 for none
+     */
+    public Perft(int hashMegabytes) {
+        if (hashMegabytes > 0) {
+            int entries = Integer.highestOneBit((int) Math.min(1 << 30,
+                                                               (hashMegabytes * 1048576L) / 16));
+            hashKeys = new long[entries];
+            hashData = new long[entries];
+        } else {
+            hashKeys = null;
+            hashData = null;
+        }
+    }
+
+    /**
+     * Returns the number of positions reached after
+     * every sequence of legal moves of the depth. The
+     * moves of each ply are generated into its own list
+     * and made and unmade on the same position.
+     *
+     * @param position as Position
+     * @param depth as int
+     * @param lists as MoveList[]
+     * @return the node count
+     */
+    public long perft(Position position, int depth, MoveList[] lists) {
+        if (depth == 0) {
+            return 1;
+        }
+
+        long key = 0L;
+        int index = 0;
+
+        if (hashKeys != null && depth > 2) {
+            key = position.getKey();
+            index = (int) key & (hashKeys.length - 1);
+            long data = hashData[index];
+
+            if ((hashKeys[index] ^ data) == key && (data & 0xFF) == depth) {
+                return data >>> 8;
+            }
+        }
+
+        MoveList moves = lists[depth];
+        long nodes = 0;
+
+        MoveGenerator.generate(position, moves);
+
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        for (int i = 0; i < moves.size(); i++) {
+            position.makeMove(moves.get(i));
+            nodes += perft(position, depth - 1, lists);
+            position.unmakeMove();
+        }
+
+        if (hashKeys != null && depth > 2) {
+            long data = (nodes << 8) | depth;
+            hashKeys[index] = key ^ data;
+            hashData[index] = data;
+        }
+        return nodes;
+    }
+
+    /**
+     * This method counts the nodes below each legal move
+     * of the position on the threads of a fork-join pool.
+     * The count of each move is printed if divide is true.
+     *
+     * @param position as Position
+     * @param depth as int
+     * @param threads as int
+     * @param divide as boolean
+     * @return the node count
+     */
+    public long divide(Position position, int depth, int threads, boolean divide) {
+        MoveList moves = new MoveList();
+        List<ForkJoinTask<Long>> tasks = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long nodes = 0;
+
+        if (depth == 0) {
+            return 1;
+        }
+
+        MoveGenerator.generate(position, moves);
+
+        for (int i = 0; i < moves.size(); i++) {
+            Position child = new Position(position);
+            child.makeMove(moves.get(i));
+            tasks.add(pool.submit(() -> perft(child, depth - 1, MoveList.forPlies(depth))));
+        }
+
+        for (int i = 0; i < tasks.size(); i++) {
+            long count = tasks.get(i).join();
+
+            if (divide) {
+                System.out.println(Move.toString(moves.get(i)) + ": " + count);
+            }
+            nodes += count;
+        }
+
+        pool.shutdown();
+        return nodes;
+    }
+
+    /**
+     * Runs perft from the command line and prints the
+     * node count, time and nodes per second.
+     *
+     * @param args depth [fen] [-divide] [-threads n] [-hash mb]
+     */
+    public static void main(String[] args) {
+        StringBuilder fen = new StringBuilder();
+        boolean divide = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hashMegabytes = 0;
+        int depth;
+
+        if (args.length == 0) {
+            System.out.println("Usage: java Perft depth [fen] [-divide] [-threads n] [-hash mb]");
+            return;
+        }
+
+        depth = Integer.parseInt(args[0]);
+
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("-divide")) {
+                divide = true;
+            } else if (args[i].equals("-threads")) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-hash")) {
+                hashMegabytes = Integer.parseInt(args[++i]);
+            } else {
+                fen.append(args[i]).append(' ');
+            }
+        }
+
+        Position position = Position.fromFen(fen.length() > 0 ? fen.toString() : Position.START_FEN);
+        Perft perft = new Perft(hashMegabytes);
+
+        long start = System.nanoTime();
+        long nodes = perft.divide(position, depth, threads, divide);
+        long elapsed = Math.max(1, System.nanoTime() - start);
+
+        System.out.println();
+        System.out.println("Nodes: " + nodes);
+        System.out.println("Time: " + elapsed / 1000000 + " ms");
+        System.out.println("Nodes/sec: " + nodes * 1000000000L / elapsed);
+    }
+}
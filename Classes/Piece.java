@@ -52,13 +52,21 @@ public abstract class Piece implements Serializable {
     public abstract ImageView drawBlack();
     
     /**
-     * This method loops through the square array and sets the
-     * square's pieceCanMoveTo to true if a certain piece can
-     * legally move there.
+     * This method sets the square's pieceCanMoveTo to true
+     * and fills it green for every square the piece can
+     * legally move to, captures included.
      * 
+     * @param targets the squares from the legal move table
      * @param squareArray as Square[]
      */
-    public abstract void validMoves(Square[] squareArray);
+    public void validMoves(long targets, Square[] squareArray) {
+        while (targets != 0) {
+            int square = Long.numberOfTrailingZeros(targets);
+            Square.setGreenFill(squareArray[square]);
+            squareArray[square].setPieceCanMoveTo(true);
+            targets &= targets - 1;
+        }
+    }
     
     /**
      * Returns the name as a String.
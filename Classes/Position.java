@@ -0,0 +1,963 @@
+import java.io.Serializable;
+
+/**
+ * The class Position is the headless model of a
+ * chess game. It keeps one 64-bit board for each
+ * type and color of piece, so the moves of a piece
+ * can be worked out without the JavaFX scene graph.
+ * Square n of a Position is the square with the
+ * position n + 1 on the chess board.
+ */
+public class Position implements Serializable {
+    /** The default serial version UID. */
+    private static final long serialVersionUID = 1L;
+
+    /** The color index of the white pieces. */
+    public static final int WHITE = 0;
+
+    /** The color index of the black pieces. */
+    public static final int BLACK = 1;
+
+    /** The type index of a pawn. */
+    public static final int PAWN = 0;
+
+    /** The type index of a knight. */
+    public static final int KNIGHT = 1;
+
+    /** The type index of a bishop. */
+    public static final int BISHOP = 2;
+
+    /** The type index of a rook. */
+    public static final int ROOK = 3;
+
+    /** The type index of a queen. */
+    public static final int QUEEN = 4;
+
+    /** The type index of a king. */
+    public static final int KING = 5;
+
+    /** The value stored for a square without a piece. */
+    public static final int EMPTY = -1;
+
+    /** The castling right of white on the king side. */
+    public static final int WHITE_KING_SIDE = 1;
+
+    /** The castling right of white on the queen side. */
+    public static final int WHITE_QUEEN_SIDE = 2;
+
+    /** The castling right of black on the king side. */
+    public static final int BLACK_KING_SIDE = 4;
+
+    /** The castling right of black on the queen side. */
+    public static final int BLACK_QUEEN_SIDE = 8;
+
+    /**
+     * The number of moves kept on the undo stack. The stack is
+     * a ring, so a game can go on for any number of moves, but
+     * only this many can be taken back in a row.
+     */
+    public static final int MAX_PLY = 1024;
+
+    /** Masks a ply to its index on the undo stack. */
+    private static final int UNDO_MASK = MAX_PLY - 1;
+
+    /** The FEN of the starting position of a chess game. */
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    /** The letters of the pieces in FEN, white in upper case and black in lower case. */
+    private static final String LETTERS = "PNBRQKpnbrqk";
+
+    /** The castling rights kept when a piece moves from or to each square. */
+    private static final int[] CASTLING_MASKS = new int[64];
+
+    static {
+        for (int i = 0; i < CASTLING_MASKS.length; i++) {
+            CASTLING_MASKS[i] = 15;
+        }
+        CASTLING_MASKS[0] = 15 & ~BLACK_QUEEN_SIDE;
+        CASTLING_MASKS[4] = 15 & ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        CASTLING_MASKS[7] = 15 & ~BLACK_KING_SIDE;
+        CASTLING_MASKS[56] = 15 & ~WHITE_QUEEN_SIDE;
+        CASTLING_MASKS[60] = 15 & ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+        CASTLING_MASKS[63] = 15 & ~WHITE_KING_SIDE;
+    }
+
+    /** The names of the pieces in the order of their type index. */
+    private static final String[] NAMES = {"pawn", "knight", "bishop", "rook", "queen", "king"};
+
+    /** The squares of each piece, indexed by color * 6 + type. */
+    private final long[] pieces;
+
+    /** The squares of all white and all black pieces. */
+    private final long[] colors;
+
+    /** The squares that have a piece on them. */
+    private long occupied;
+
+    /** The piece on each square or EMPTY. */
+    private final int[] board;
+
+    /** The color of the side whose turn it is. */
+    private int sideToMove;
+
+    /** The castling rights that are left, as a set of flags. */
+    private int castlingRights;
+
+    /** The square a pawn can capture en passant onto or EMPTY. */
+    private int enPassant;
+
+    /** The number of moves since the last capture or pawn move. */
+    private int halfmoveClock;
+
+    /** The number of the full move, starting at 1 and counting up after black moves. */
+    private int fullmoveNumber;
+
+    /** The Zobrist key of the position, updated as pieces are added and removed. */
+    private long key;
+
+    /** The Zobrist key of the pawns alone. */
+    private long pawnKey;
+
+    /** The middlegame value of the white pieces minus the black pieces. */
+    private int middlegame;
+
+    /** The endgame value of the white pieces minus the black pieces. */
+    private int endgame;
+
+    /** The game phase, the sum of the phase weights of the pieces. */
+    private int phase;
+
+    /** The network hidden layer kept up to date with the pieces, or null. */
+    private transient Accumulator accumulator;
+
+    /** The number of moves on the undo stack. */
+    private int ply;
+
+    /** The moves that were made, for each ply of the undo stack. */
+    private final int[] undoMoves;
+
+    /** The piece captured by each move or EMPTY. */
+    private final int[] undoCaptured;
+
+    /** The castling rights before each move. */
+    private final int[] undoCastling;
+
+    /** The en passant square before each move. */
+    private final int[] undoEnPassant;
+
+    /** The halfmove clock before each move. */
+    private final int[] undoHalfmove;
+
+    /** The Zobrist key before each move. */
+    private final long[] undoKeys;
+
+    /**
+     * The constructor for the class Position.
+     * It creates an empty board with white to move.
+     */
+    public Position() {
+        pieces = new long[12];
+        colors = new long[2];
+        board = new int[64];
+        sideToMove = WHITE;
+        enPassant = EMPTY;
+        fullmoveNumber = 1;
+        undoMoves = new int[MAX_PLY];
+        undoCaptured = new int[MAX_PLY];
+        undoCastling = new int[MAX_PLY];
+        undoEnPassant = new int[MAX_PLY];
+        undoHalfmove = new int[MAX_PLY];
+        undoKeys = new long[MAX_PLY];
+
+        for (int i = 0; i < board.length; i++) {
+            board[i] = EMPTY;
+        }
+    }
+
+    /**
+     * The copy constructor for the class Position.
+     *
+     * @param other as Position
+     */
+    public Position(Position other) {
+        pieces = other.pieces.clone();
+        colors = other.colors.clone();
+        board = other.board.clone();
+        occupied = other.occupied;
+        sideToMove = other.sideToMove;
+        castlingRights = other.castlingRights;
+        enPassant = other.enPassant;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        ply = other.ply;
+        undoMoves = other.undoMoves.clone();
+        undoCaptured = other.undoCaptured.clone();
+        undoCastling = other.undoCastling.clone();
+        undoEnPassant = other.undoEnPassant.clone();
+        undoHalfmove = other.undoHalfmove.clone();
+        undoKeys = other.undoKeys.clone();
+        key = other.key;
+        pawnKey = other.pawnKey;
+        middlegame = other.middlegame;
+        endgame = other.endgame;
+        phase = other.phase;
+    }
+
+    /**
+     * This method builds a position from a FEN string.
+     * The move counters may be left off.
+     *
+     * @param fen as String
+     * @return the position
+     */
+    public static Position fromFen(String fen) {
+        Position position = new Position();
+        String[] fields = fen.trim().split("\\s+");
+        int square = 0;
+
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("Invalid FEN: " + fen);
+        }
+
+        for (char c : fields[0].toCharArray()) {
+            if (c == '/') {
+                continue;
+            } else if (Character.isDigit(c)) {
+                square += c - '0';
+            } else if (LETTERS.indexOf(c) >= 0 && square < 64) {
+                position.addPiece(LETTERS.indexOf(c), square++);
+            } else {
+                throw new IllegalArgumentException("Invalid FEN: " + fen);
+            }
+        }
+
+        position.sideToMove = fields[1].equals("w") ? WHITE : BLACK;
+
+        for (char c : fields[2].toCharArray()) {
+            position.castlingRights |= c == 'K' ? WHITE_KING_SIDE
+                                     : c == 'Q' ? WHITE_QUEEN_SIDE
+                                     : c == 'k' ? BLACK_KING_SIDE
+                                     : c == 'q' ? BLACK_QUEEN_SIDE : 0;
+        }
+
+        position.enPassant = fields[3].equals("-") ? EMPTY : parseSquare(fields[3]);
+
+        if (fields.length >= 6) {
+            position.halfmoveClock = Integer.parseInt(fields[4]);
+            position.fullmoveNumber = Integer.parseInt(fields[5]);
+        }
+        position.key = position.computeKey();
+        return position;
+    }
+
+    /**
+     * Returns the position as a FEN string.
+     *
+     * @return the FEN
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder();
+
+        for (int row = 0; row < 8; row++) {
+            int empty = 0;
+
+            for (int col = 0; col < 8; col++) {
+                int piece = board[row * 8 + col];
+
+                if (piece == EMPTY) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                fen.append(LETTERS.charAt(piece));
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (row < 7) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(sideToMove == WHITE ? " w " : " b ");
+
+        if (castlingRights == 0) {
+            fen.append('-');
+        }
+        if ((castlingRights & WHITE_KING_SIDE) != 0) {
+            fen.append('K');
+        }
+        if ((castlingRights & WHITE_QUEEN_SIDE) != 0) {
+            fen.append('Q');
+        }
+        if ((castlingRights & BLACK_KING_SIDE) != 0) {
+            fen.append('k');
+        }
+        if ((castlingRights & BLACK_QUEEN_SIDE) != 0) {
+            fen.append('q');
+        }
+
+        fen.append(' ').append(enPassant == EMPTY ? "-" : squareName(enPassant));
+        fen.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+        return fen.toString();
+    }
+
+    /**
+     * Returns the name of a square, like "e4".
+     *
+     * @param square as int
+     * @return the name
+     */
+    public static String squareName(int square) {
+        return "" + (char) ('a' + (square & 7)) + (char) ('8' - (square >>> 3));
+    }
+
+    /**
+     * Returns the square with a name like "e4".
+     *
+     * @param name as String
+     * @return the square
+     */
+    public static int parseSquare(String name) {
+        if (name.length() != 2) {
+            throw new IllegalArgumentException("Invalid square: " + name);
+        }
+
+        int col = name.charAt(0) - 'a';
+        int row = '8' - name.charAt(1);
+
+        if (col < 0 || col > 7 || row < 0 || row > 7) {
+            throw new IllegalArgumentException("Invalid square: " + name);
+        }
+        return row * 8 + col;
+    }
+
+    /**
+     * This method builds a position from the piece array
+     * of a chess board. Pieces that are not on the board
+     * are skipped and the side to move is the color of
+     * the pieces whose turn it is. A side can still castle
+     * if its king and rook are on their starting squares.
+     * It is used for a new game and for games saved
+     * before the position was saved with them; the
+     * position of any other saved game is loaded whole.
+     *
+     * @param pieceArray as Piece[]
+     * @return the position
+     */
+    public static Position fromPieces(Piece[] pieceArray) {
+        Position position = new Position();
+
+        for (int i = 0; i < pieceArray.length; i++) {
+            int square = pieceArray[i].getPosition() - 1;
+
+            if (square < 0 || square > 63) {
+                continue;
+            }
+            int color = colorOf(pieceArray[i].getColor());
+            position.addPiece(piece(color, typeOf(pieceArray[i].getName())), square);
+
+            if (pieceArray[i].getTurn()) {
+                position.sideToMove = color;
+            }
+        }
+
+        int whiteKing = piece(WHITE, KING);
+        int whiteRook = piece(WHITE, ROOK);
+        int blackKing = piece(BLACK, KING);
+        int blackRook = piece(BLACK, ROOK);
+
+        if (position.board[60] == whiteKing && position.board[63] == whiteRook) {
+            position.castlingRights |= WHITE_KING_SIDE;
+        }
+        if (position.board[60] == whiteKing && position.board[56] == whiteRook) {
+            position.castlingRights |= WHITE_QUEEN_SIDE;
+        }
+        if (position.board[4] == blackKing && position.board[7] == blackRook) {
+            position.castlingRights |= BLACK_KING_SIDE;
+        }
+        if (position.board[4] == blackKing && position.board[0] == blackRook) {
+            position.castlingRights |= BLACK_QUEEN_SIDE;
+        }
+        position.key = position.computeKey();
+        return position;
+    }
+
+    /**
+     * Returns the piece value for a color and type.
+     *
+     * @param color as int
+     * @param type as int
+     * @return the piece
+     */
+    public static int piece(int color, int type) {
+        return color * 6 + type;
+    }
+
+    /**
+     * Returns the type of a piece value.
+     *
+     * @param piece as int
+     * @return the type
+     */
+    public static int typeOf(int piece) {
+        return piece % 6;
+    }
+
+    /**
+     * Returns the color of a piece value.
+     *
+     * @param piece as int
+     * @return the color
+     */
+    public static int colorOf(int piece) {
+        return piece / 6;
+    }
+
+    /**
+     * Returns the type index for the name of a piece.
+     *
+     * @param name as String
+     * @return the type
+     */
+    public static int typeOf(String name) {
+        for (int i = 0; i < NAMES.length; i++) {
+            if (NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown piece: " + name);
+    }
+
+    /**
+     * Returns the color index for the color of a piece.
+     *
+     * @param color as String
+     * @return the color
+     */
+    public static int colorOf(String color) {
+        return color.equals("white") ? WHITE : BLACK;
+    }
+
+    /**
+     * Returns the name of a type of piece.
+     *
+     * @param type as int
+     * @return the name
+     */
+    public static String nameOf(int type) {
+        return NAMES[type];
+    }
+
+    /**
+     * Puts a piece on an empty square. The key and the
+     * evaluation sums are updated.
+     *
+     * @param piece as int
+     * @param square as int
+     */
+    public void addPiece(int piece, int square) {
+        long bit = 1L << square;
+
+        pieces[piece] |= bit;
+        colors[colorOf(piece)] |= bit;
+        occupied |= bit;
+        board[square] = piece;
+        key ^= Zobrist.piece(piece, square);
+
+        if (typeOf(piece) == PAWN) {
+            pawnKey ^= Zobrist.piece(piece, square);
+        }
+        middlegame += Evaluation.middlegame(piece, square);
+        endgame += Evaluation.endgame(piece, square);
+        phase += Evaluation.phase(piece);
+
+        if (accumulator != null) {
+            accumulator.add(piece, square);
+        }
+    }
+
+    /**
+     * Takes the piece off a square and returns it. The
+     * key and the evaluation sums are updated.
+     *
+     * @param square as int
+     * @return the piece that was removed
+     */
+    public int removePiece(int square) {
+        int piece = board[square];
+        long bit = 1L << square;
+
+        pieces[piece] &= ~bit;
+        colors[colorOf(piece)] &= ~bit;
+        occupied &= ~bit;
+        board[square] = EMPTY;
+        key ^= Zobrist.piece(piece, square);
+
+        if (typeOf(piece) == PAWN) {
+            pawnKey ^= Zobrist.piece(piece, square);
+        }
+        middlegame -= Evaluation.middlegame(piece, square);
+        endgame -= Evaluation.endgame(piece, square);
+        phase -= Evaluation.phase(piece);
+
+        if (accumulator != null) {
+            accumulator.remove(piece, square);
+        }
+        return piece;
+    }
+
+    /**
+     * Moves the piece on one square to another
+     * empty square.
+     *
+     * @param from as int
+     * @param to as int
+     */
+    public void movePiece(int from, int to) {
+        addPiece(removePiece(from), to);
+    }
+
+    /**
+     * Returns the piece on a square or EMPTY.
+     *
+     * @param square as int
+     * @return the piece
+     */
+    public int pieceAt(int square) {
+        return board[square];
+    }
+
+    /**
+     * Returns the squares of a color and type of piece.
+     *
+     * @param color as int
+     * @param type as int
+     * @return the squares
+     */
+    public long getPieces(int color, int type) {
+        return pieces[piece(color, type)];
+    }
+
+    /**
+     * Returns the squares of all pieces of a color.
+     *
+     * @param color as int
+     * @return the squares
+     */
+    public long getColor(int color) {
+        return colors[color];
+    }
+
+    /**
+     * Returns the squares that have a piece on them.
+     *
+     * @return occupied
+     */
+    public long getOccupied() {
+        return occupied;
+    }
+
+    /**
+     * Returns the color of the side to move.
+     *
+     * @return sideToMove
+     */
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    /**
+     * Sets the color of the side to move.
+     *
+     * @param sideToMove the sideToMove to set
+     */
+    public void setSideToMove(int sideToMove) {
+        this.sideToMove = sideToMove;
+        key = computeKey();
+    }
+    /**
+     * Returns the castling rights that are left.
+     *
+     * @return castlingRights
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * Returns the en passant square or EMPTY.
+     *
+     * @return enPassant
+     */
+    public int getEnPassant() {
+        return enPassant;
+    }
+
+    /**
+     * Returns the number of moves since the last
+     * capture or pawn move.
+     *
+     * @return halfmoveClock
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Returns the number of the full move.
+     *
+     * @return fullmoveNumber
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * Returns the square of the king of a color.
+     *
+     * @param color as int
+     * @return the square
+     */
+    public int kingSquare(int color) {
+        return Long.numberOfTrailingZeros(pieces[piece(color, KING)]);
+    }
+
+    /**
+     * Returns the pieces of both colors that attack the
+     * square when the given squares are occupied.
+     *
+     * @param square as int
+     * @param occupied as long
+     * @return the attackers
+     */
+    public long attackersTo(int square, long occupied) {
+        long queens = pieces[piece(WHITE, QUEEN)] | pieces[piece(BLACK, QUEEN)];
+        long rooks = pieces[piece(WHITE, ROOK)] | pieces[piece(BLACK, ROOK)] | queens;
+        long bishops = pieces[piece(WHITE, BISHOP)] | pieces[piece(BLACK, BISHOP)] | queens;
+
+        return (Attacks.pawn(BLACK, square) & pieces[piece(WHITE, PAWN)])
+             | (Attacks.pawn(WHITE, square) & pieces[piece(BLACK, PAWN)])
+             | (Attacks.knight(square) & (pieces[piece(WHITE, KNIGHT)] | pieces[piece(BLACK, KNIGHT)]))
+             | (Attacks.king(square) & (pieces[piece(WHITE, KING)] | pieces[piece(BLACK, KING)]))
+             | (Attacks.bishop(square, occupied) & bishops)
+             | (Attacks.rook(square, occupied) & rooks);
+    }
+
+    /**
+     * Returns true if a piece of the color attacks the square.
+     *
+     * @param square as int
+     * @param color as int
+     * @return true or false
+     */
+    public boolean isAttacked(int square, int color) {
+        long queens = getPieces(color, QUEEN);
+
+        return (Attacks.pawn(color ^ 1, square) & getPieces(color, PAWN)) != 0
+            || (Attacks.knight(square) & getPieces(color, KNIGHT)) != 0
+            || (Attacks.king(square) & getPieces(color, KING)) != 0
+            || (Attacks.bishop(square, occupied) & (getPieces(color, BISHOP) | queens)) != 0
+            || (Attacks.rook(square, occupied) & (getPieces(color, ROOK) | queens)) != 0;
+    }
+
+    /**
+     * Returns true if the king of the side to move is in check.
+     *
+     * @return true or false
+     */
+    public boolean inCheck() {
+        return isAttacked(kingSquare(sideToMove), sideToMove ^ 1);
+    }
+
+    /**
+     * This method makes a packed move on the position.
+     * Captures, en passant, castling and promotion are all
+     * carried out and the castling rights, en passant square,
+     * move counters, side to move and Zobrist key are updated.
+     * What is needed to take the move back is pushed on the
+     * undo stack.
+     *
+     * @param move as int
+     */
+    public void makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flags = Move.flags(move);
+        int type = typeOf(board[from]);
+        int captured = EMPTY;
+
+        undoMoves[ply & UNDO_MASK] = move;
+        undoCastling[ply & UNDO_MASK] = castlingRights;
+        undoEnPassant[ply & UNDO_MASK] = enPassant;
+        undoHalfmove[ply & UNDO_MASK] = halfmoveClock;
+        undoKeys[ply & UNDO_MASK] = key;
+
+        key ^= enPassantKey() ^ Zobrist.castling(castlingRights) ^ Zobrist.sideToMove();
+        halfmoveClock++;
+
+        if (type == PAWN || Move.isCapture(move)) {
+            halfmoveClock = 0;
+        }
+        if (flags == Move.EN_PASSANT) {
+            captured = removePiece(sideToMove == WHITE ? to + 8 : to - 8);
+        } else if (Move.isCapture(move)) {
+            captured = removePiece(to);
+        }
+
+        movePiece(from, to);
+
+        if (Move.isPromotion(move)) {
+            removePiece(to);
+            addPiece(piece(sideToMove, Move.promotionType(move)), to);
+        } else if (flags == Move.KING_CASTLE) {
+            movePiece(from + 3, from + 1);
+        } else if (flags == Move.QUEEN_CASTLE) {
+            movePiece(from - 4, from - 1);
+        }
+
+        castlingRights &= CASTLING_MASKS[from] & CASTLING_MASKS[to];
+        enPassant = flags == Move.DOUBLE_PUSH ? (from + to) / 2 : EMPTY;
+
+        if (sideToMove == BLACK) {
+            fullmoveNumber++;
+        }
+        sideToMove ^= 1;
+        key ^= enPassantKey() ^ Zobrist.castling(castlingRights);
+        undoCaptured[ply++ & UNDO_MASK] = captured;
+    }
+
+    /**
+     * This method takes back the last move made and
+     * returns it. The board, castling rights, en passant
+     * square, move counters and key are restored from
+     * the undo stack.
+     *
+     * @return the move taken back
+     */
+    public int unmakeMove() {
+        int move = undoMoves[--ply & UNDO_MASK];
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flags = Move.flags(move);
+        int captured = undoCaptured[ply & UNDO_MASK];
+
+        sideToMove ^= 1;
+
+        if (sideToMove == BLACK) {
+            fullmoveNumber--;
+        }
+
+        if (Move.isPromotion(move)) {
+            removePiece(to);
+            addPiece(piece(sideToMove, PAWN), to);
+        } else if (flags == Move.KING_CASTLE) {
+            movePiece(from + 1, from + 3);
+        } else if (flags == Move.QUEEN_CASTLE) {
+            movePiece(from - 1, from - 4);
+        }
+
+        movePiece(to, from);
+
+        if (flags == Move.EN_PASSANT) {
+            addPiece(captured, sideToMove == WHITE ? to + 8 : to - 8);
+        } else if (captured != EMPTY) {
+            addPiece(captured, to);
+        }
+
+        castlingRights = undoCastling[ply & UNDO_MASK];
+        enPassant = undoEnPassant[ply & UNDO_MASK];
+        halfmoveClock = undoHalfmove[ply & UNDO_MASK];
+        key = undoKeys[ply & UNDO_MASK];
+        return move;
+    }
+
+    /**
+     * This method passes the turn to the other side without
+     * moving a piece. It is pushed on the undo stack like a
+     * move and taken back with unmakeNullMove. The search
+     * uses it to see if a position is still good when the
+     * opponent may move twice.
+     */
+    public void makeNullMove() {
+        undoMoves[ply & UNDO_MASK] = Move.NONE;
+        undoCaptured[ply & UNDO_MASK] = EMPTY;
+        undoCastling[ply & UNDO_MASK] = castlingRights;
+        undoEnPassant[ply & UNDO_MASK] = enPassant;
+        undoHalfmove[ply & UNDO_MASK] = halfmoveClock;
+        undoKeys[ply++ & UNDO_MASK] = key;
+
+        key ^= enPassantKey() ^ Zobrist.sideToMove();
+        enPassant = EMPTY;
+        halfmoveClock++;
+        sideToMove ^= 1;
+    }
+
+    /**
+     * This method takes back the null move made last.
+     */
+    public void unmakeNullMove() {
+        ply--;
+        sideToMove ^= 1;
+        enPassant = undoEnPassant[ply & UNDO_MASK];
+        halfmoveClock = undoHalfmove[ply & UNDO_MASK];
+        key = undoKeys[ply & UNDO_MASK];
+    }
+
+    /**
+     * Returns the Zobrist key of the pawns alone. Positions
+     * with the same pawns have the same pawn key, so their
+     * pawn structure only has to be evaluated once.
+     *
+     * @return pawnKey
+     */
+    public long getPawnKey() {
+        return pawnKey;
+    }
+
+    /**
+     * Returns the middlegame value of the white pieces
+     * minus the black pieces.
+     *
+     * @return middlegame
+     */
+    public int getMiddlegame() {
+        return middlegame;
+    }
+
+    /**
+     * Returns the endgame value of the white pieces
+     * minus the black pieces.
+     *
+     * @return endgame
+     */
+    public int getEndgame() {
+        return endgame;
+    }
+
+    /**
+     * Returns the game phase. It is Evaluation.MAX_PHASE
+     * with every piece on the board and 0 with only pawns
+     * and kings.
+     *
+     * @return phase
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * Attaches an accumulator that is updated with every
+     * piece added and removed from now on, after summing
+     * it from the pieces on the board. A copy of the
+     * position has no accumulator.
+     *
+     * @param accumulator the accumulator to set or null to detach it
+     */
+    public void setAccumulator(Accumulator accumulator) {
+        this.accumulator = accumulator;
+
+        if (accumulator != null) {
+            accumulator.refresh(this);
+        }
+    }
+
+    /**
+     * Returns the last move made or Move.NONE if there
+     * is none to take back or it was a null move.
+     *
+     * @return the move
+     */
+    public int getLastMove() {
+        return ply > 0 ? undoMoves[(ply - 1) & UNDO_MASK] : Move.NONE;
+    }
+
+    /**
+     * Returns the number of moves that can be taken back.
+     *
+     * @return ply
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    /**
+     * Returns true if the position has been on the board the
+     * number of times, counting now. The keys on the undo
+     * stack are a history of the game, and only the positions
+     * with the same side to move since the last capture or
+     * pawn move can be the same, so every second key is
+     * compared back to there, or to the last null move.
+     *
+     * @param times 2 for a repetition, 3 for a threefold repetition
+     * @return true or false
+     */
+    public boolean isRepetition(int times) {
+        int limit = Math.min(halfmoveClock, Math.min(ply, MAX_PLY));
+        int count = 1;
+
+        for (int back = 2; back <= limit; back += 2) {
+            if (undoMoves[(ply - back + 1) & UNDO_MASK] == Move.NONE
+                || undoMoves[(ply - back) & UNDO_MASK] == Move.NONE) {
+                return false;
+            }
+            if (undoKeys[(ply - back) & UNDO_MASK] == key && ++count >= times) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the Zobrist key of the position. It is kept
+     * up to date by every move made and taken back, so equal
+     * positions can be found by comparing one long.
+     *
+     * @return key
+     */
+    public long getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the Zobrist number of the en passant square if
+     * a pawn of the side to move can capture onto it, or 0.
+     *
+     * @return the number
+     */
+    private long enPassantKey() {
+        if (enPassant != EMPTY
+            && (Attacks.pawn(sideToMove ^ 1, enPassant) & getPieces(sideToMove, PAWN)) != 0) {
+            return Zobrist.enPassant(enPassant);
+        }
+        return 0L;
+    }
+
+    /**
+     * Returns the Zobrist key of the position, worked out
+     * from every piece on the board. The en passant square
+     * only counts if a pawn of the side to move can capture
+     * onto it.
+     *
+     * @return the key
+     */
+    public long computeKey() {
+        long computed = 0L;
+
+        for (int square = 0; square < 64; square++) {
+            if (board[square] != EMPTY) {
+                computed ^= Zobrist.piece(board[square], square);
+            }
+        }
+
+        computed ^= Zobrist.castling(castlingRights) ^ enPassantKey();
+
+        if (sideToMove == BLACK) {
+            computed ^= Zobrist.sideToMove();
+        }
+        return computed;
+    }
+}
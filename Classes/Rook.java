@@ -1,6 +1,5 @@
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.scene.layout.GridPane;
 
 /**
  * The class Rook is a Piece.
@@ -65,72 +64,4 @@ public class Rook extends Piece {
     public ImageView getPiece() {
         return piece;
     }
-    
-    /**
-     * This method will be called when a piece has
-     * been selected. It will loop through the
-     * square array to set all the valid squares
-     * that the selected piece can legally move to.
-     * A rook can move horizontally or vertically
-     * unlimited amount of spaces as long as there
-     * is no other piece blocking it.
-     * 
-     * @param squareArray as Square[]
-     */
-    @Override
-    public void validMoves(Square[] squareArray) {
-        int currentRow = GridPane.getRowIndex(piece);
-        
-        int leftMoves = 1;
-        int rightMoves = 1;
-        
-        int upMoves = 8;
-        int downMoves = 8;
-        
-        for (int i = 63; i >= 0; i--) {
-            if (squareArray[i].getPosition() == getPosition() - leftMoves) {
-                if (squareArray[i].getHasAPiece() || 
-                   (currentRow != GridPane.getRowIndex(squareArray[i].getRec()))) {
-                   break;
-                }
-                Square.setGreenFill(squareArray[i]);
-                squareArray[i].setPieceCanMoveTo(true);
-                leftMoves++;
-            }
-        }
-        
-        for (int i = 0; i < squareArray.length; i++) {
-            if (squareArray[i].getPosition() == getPosition() + rightMoves) {
-                if (squareArray[i].getHasAPiece() || 
-                   (currentRow != GridPane.getRowIndex(squareArray[i].getRec()))) {
-                   break;
-                }
-                Square.setGreenFill(squareArray[i]);
-                squareArray[i].setPieceCanMoveTo(true);
-                rightMoves++;
-            }
-        }
-        
-        for (int i = 63; i >= 0; i--) {
-            if (squareArray[i].getPosition() == getPosition() - upMoves) {
-                if (squareArray[i].getHasAPiece()) {
-                   break;
-                }
-                Square.setGreenFill(squareArray[i]);
-                squareArray[i].setPieceCanMoveTo(true);
-                upMoves += 8;
-            }
-        }
-        
-        for (int i = 0; i < squareArray.length; i++) {
-            if (squareArray[i].getPosition() == getPosition() + downMoves) {
-                if (squareArray[i].getHasAPiece()) {
-                   break;
-                }
-                Square.setGreenFill(squareArray[i]);
-                squareArray[i].setPieceCanMoveTo(true);
-                downMoves += 8;
-            }
-        }    
-    }
 }
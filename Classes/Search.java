@@ -0,0 +1,809 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The class Search finds the best move of a position
+ * with an iterative deepening alpha-beta search. Each
+ * iteration searches one ply deeper than the last and
+ * stores its results in the transposition table, which
+ * gives the next iteration a best move to try first.
+ * At the end of each line, a quiescence search plays
+ * out the captures, so a piece left hanging on the
+ * last ply is not missed. The moves of each node are
+ * handed out by a MovePicker, best first, and the quiet
+ * moves that cause cutoffs are remembered as killers,
+ * counter moves and in a history table to order the
+ * moves of later nodes.
+ *
+ * Only the first move of a node is searched with the
+ * full window; the rest are searched with a null window
+ * to prove they are worse, and late quiet moves at a
+ * reduced depth. Positions that are still good after
+ * passing the turn are cut off early, and each iteration
+ * starts with a narrow window around the last score.
+ * Each of these can be switched off with setFeatures;
+ * without null windows, passing the turn is also tried
+ * in the nodes searched with a full window.
+ * The search stops when its deadline passes and returns
+ * the best move of the last finished iteration. The
+ * deadline can be moved while the search runs, so a
+ * search started without a limit can be given one later.
+ *
+ * Several searches can share one transposition table
+ * on different threads. Each has its own move pickers,
+ * killers and history table, and helpers skip some
+ * depths so the threads spread out over the tree.
+ *
+ * Endings of king and pawn, rook or queen against a
+ * king are not searched if bitbases are set; their
+ * result is looked up instead. When the game has
+ * already reached one of them, only the draws are cut
+ * off and the wins are searched towards the mate. A
+ * lost position in check is never cut off, so a mate
+ * is scored as a mate.
+ *
+ * A position that repeats one earlier in the game or
+ * the search, or that ends 50 moves without a capture
+ * or pawn move without being a checkmate, is scored as
+ * a draw.
+ */
+public class Search {
+    /** A score higher than any real score. */
+    public static final int INFINITE = 32000;
+
+    /** The score of giving checkmate now. Mates further away score less. */
+    public static final int MATE = 31000;
+
+    /** The deepest the search goes from the root. */
+    public static final int MAX_PLY = 128;
+
+    /** Search all but the first move of a node with a null window. */
+    public static final int PRINCIPAL_VARIATION = 1;
+
+    /** Start each iteration with a narrow window around the last score. */
+    public static final int ASPIRATION_WINDOWS = 2;
+
+    /** Cut off positions that are still good after passing the turn. */
+    public static final int NULL_MOVE = 4;
+
+    /** Search late quiet moves at a reduced depth. */
+    public static final int LATE_MOVE_REDUCTIONS = 8;
+
+    /** Every feature of the search. */
+    public static final int ALL_FEATURES = 15;
+
+    /** The size of the evaluation cache of a search on its own, in megabytes. */
+    private static final int EVAL_CACHE_MEGABYTES = 8;
+
+    /** The number of pawn structures each search remembers. */
+    private static final int PAWN_TABLE_ENTRIES = 16384;
+
+    /** The first half width of an aspiration window. */
+    private static final int ASPIRATION_WINDOW = 25;
+
+    /** The depth late move reductions reduce by, indexed by depth and number of the move. */
+    private static final int[][] REDUCTIONS = new int[64][64];
+
+    static {
+        for (int depth = 1; depth < 64; depth++) {
+            for (int move = 1; move < 64; move++) {
+                REDUCTIONS[depth][move] = (int) (0.75 + Math.log(depth) * Math.log(move) / 2.25);
+            }
+        }
+    }
+
+    /** The number of nodes searched between checks of the clock. */
+    private static final int CHECK_INTERVAL = 1024;
+
+    /** The number of depths in a row each helper searches or skips. */
+    private static final int[] SKIP_SIZE = {1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4, 4};
+
+    /** The depth each helper starts its pattern of skipped depths at. */
+    private static final int[] SKIP_PHASE = {0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6, 7};
+
+    /** The index of this search's thread. The main search is 0. */
+    private final int id;
+
+    /** The table shared by every search of the game. */
+    private final TranspositionTable table;
+
+    /** The evaluations shared by every search of the game. */
+    private final EvalCache evalCache;
+
+    /** The pawn structures evaluated by this search. */
+    private final PawnTable pawns;
+
+    /** The hidden layer of the network evaluating positions, or null to use Evaluation. */
+    private Accumulator accumulator;
+
+    /** The bitbases that decide simple endings without searching, or null. */
+    private Bitbase bitbase;
+
+    /** True if the position searched is itself in the bitbases. */
+    private boolean rootInBitbase;
+
+    /** The legal moves at the root. */
+    private final MoveList rootMoves;
+
+    /** The legal moves of a position checked for a draw by the 50 move rule. */
+    private final MoveList legalMoves;
+
+    /** The move picker of each ply. */
+    private final MovePicker[] pickers;
+
+    /** How often each quiet move of each color caused a cutoff, indexed by from and to. */
+    private final int[][][] history;
+
+    /** The two quiet moves of each ply that last caused a cutoff. */
+    private final int[][] killers;
+
+    /** The quiet move that last refuted each move, indexed by the piece moved and its target. */
+    private final int[][] counterMoves;
+
+    /** The features that are switched on. */
+    private int features;
+
+    /** True once the search has been told to stop. */
+    private volatile boolean stopped;
+
+    /** The time in nanoseconds at which the search stops, shared with the caller. */
+    private AtomicLong deadline;
+
+    /** The number of positions visited. */
+    private long nodes;
+
+    /** The number of evaluations found in the cache. */
+    private long evalHits;
+
+    /** The number of evaluations not found in the cache. */
+    private long evalMisses;
+
+    /** The number of nodes that had a beta cutoff. */
+    private long cutoffs;
+
+    /** The number of nodes whose first move caused the beta cutoff. */
+    private long firstMoveCutoffs;
+
+    /** The best move found at the root by the current iteration. */
+    private int rootMove;
+
+    /** The depth of the last finished iteration. */
+    private int completedDepth;
+
+    /**
+     * The constructor for the class Search.
+     *
+     * @param table as TranspositionTable
+     */
+    public Search(TranspositionTable table) {
+        this(table, new EvalCache(EVAL_CACHE_MEGABYTES), 0);
+    }
+
+    /**
+     * The constructor for a search that runs on one of
+     * several threads sharing the tables.
+     *
+     * @param table as TranspositionTable
+     * @param evalCache as EvalCache
+     * @param id the index of the thread, 0 for the main search
+     */
+    public Search(TranspositionTable table, EvalCache evalCache, int id) {
+        this.table = table;
+        this.evalCache = evalCache;
+        this.id = id;
+        rootMoves = new MoveList();
+        legalMoves = new MoveList();
+        pawns = new PawnTable(PAWN_TABLE_ENTRIES);
+        pickers = new MovePicker[MAX_PLY + 1];
+        history = new int[2][64][64];
+        killers = new int[MAX_PLY + 1][2];
+        counterMoves = new int[12][64];
+        features = ALL_FEATURES;
+
+        for (int i = 0; i < pickers.length; i++) {
+            pickers[i] = new MovePicker();
+        }
+    }
+
+    /**
+     * This method searches the position until System.nanoTime
+     * passes the deadline, going one ply deeper each iteration,
+     * and returns the best move found. It returns Move.NONE
+     * if the side to move has no legal moves. The deadline
+     * is read as the search runs, so it can be changed from
+     * another thread. Call reset before starting the search.
+     *
+     * @param position as Position
+     * @param deadline the time in nanoseconds to stop at
+     * @param maxDepth the deepest iteration to search
+     * @return the best move
+     */
+    public int search(Position position, AtomicLong deadline, int maxDepth) {
+        int bestMove = Move.NONE;
+        int score = 0;
+
+        nodes = 0;
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+        evalHits = 0;
+        evalMisses = 0;
+        completedDepth = 0;
+        this.deadline = deadline;
+        ageHistory();
+        MoveGenerator.generate(position, rootMoves);
+        position.setAccumulator(accumulator);
+        rootInBitbase = bitbase != null && bitbase.probe(position) != Bitbase.NONE;
+
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = Move.NONE;
+            plyKillers[1] = Move.NONE;
+        }
+
+        for (int depth = 1; depth <= Math.min(maxDepth, MAX_PLY); depth++) {
+            if (id > 0 && depth > 1 && isSkipped(depth)) {
+                continue;
+            }
+            score = searchRoot(position, depth, score);
+
+            if (stopped && bestMove != Move.NONE) {
+                break;
+            }
+            if (rootMove != Move.NONE) {
+                bestMove = rootMove;
+            }
+            completedDepth = depth;
+
+            if (stopped || rootMoves.size() <= 1) {
+                break;
+            }
+        }
+
+        if (bestMove == Move.NONE && rootMoves.size() > 0) {
+            bestMove = rootMoves.get(0);
+        }
+        position.setAccumulator(null);
+        return bestMove;
+    }
+
+    /**
+     * Returns the score of the root searched to the depth.
+     * With aspiration windows on, the search starts with a
+     * narrow window around the score of the last iteration
+     * and widens it on the side the score fell outside of
+     * until the score is inside.
+     *
+     * @param position as Position
+     * @param depth as int
+     * @param previous the score of the last iteration
+     * @return the score
+     */
+    private int searchRoot(Position position, int depth, int previous) {
+        int window = ASPIRATION_WINDOW;
+        int alpha = -INFINITE;
+        int beta = INFINITE;
+
+        if ((features & ASPIRATION_WINDOWS) != 0 && depth >= 4 && Math.abs(previous) < MATE - MAX_PLY) {
+            alpha = previous - window;
+            beta = previous + window;
+        }
+
+        while (true) {
+            rootMove = Move.NONE;
+            int score = alphaBeta(position, depth, 0, alpha, beta);
+
+            if (stopped) {
+                return score;
+            }
+            if (score <= alpha && alpha > -INFINITE) {
+                alpha = Math.max(score - window, -INFINITE);
+            } else if (score >= beta && beta < INFINITE) {
+                beta = Math.min(score + window, INFINITE);
+            } else {
+                return score;
+            }
+            window *= 2;
+        }
+    }
+
+    /**
+     * Returns true if this helper skips the depth. Helpers
+     * search different depths at the same time, so their
+     * results in the shared table help each other.
+     *
+     * @param depth as int
+     * @return true or false
+     */
+    private boolean isSkipped(int depth) {
+        int index = (id - 1) % SKIP_SIZE.length;
+
+        return ((depth + SKIP_PHASE[index]) / SKIP_SIZE[index]) % 2 != 0;
+    }
+
+    /**
+     * This method halves the history scores, so moves that
+     * were good in earlier searches count for less.
+     */
+    private void ageHistory() {
+        for (int[][] color : history) {
+            for (int[] from : color) {
+                for (int to = 0; to < from.length; to++) {
+                    from[to] /= 2;
+                }
+            }
+        }
+    }
+
+    /**
+     * This method clears the stop flag. It is called
+     * before every search is started, so a stop that
+     * comes before the search begins is not lost.
+     */
+    public void reset() {
+        stopped = false;
+    }
+
+    /**
+     * Sets the features of the search that are switched on,
+     * as a set of flags like NULL_MOVE | PRINCIPAL_VARIATION.
+     *
+     * @param features the features to set
+     */
+    public void setFeatures(int features) {
+        this.features = features;
+    }
+
+    /**
+     * Sets the network that evaluates positions. Without
+     * one, the hand-written Evaluation is used. The
+     * evaluation cache is emptied.
+     *
+     * @param network the network to set or null
+     */
+    public void setNetwork(Network network) {
+        accumulator = network == null ? null : new Accumulator(network);
+        evalCache.clear();
+    }
+
+    /**
+     * Sets the bitbases that decide simple endings.
+     *
+     * @param bitbase the bitbases to set or null to search them
+     */
+    public void setBitbase(Bitbase bitbase) {
+        this.bitbase = bitbase;
+    }
+
+    /**
+     * Returns the features of the search that are switched on.
+     *
+     * @return features
+     */
+    public int getFeatures() {
+        return features;
+    }
+
+    /**
+     * This method tells a running search to stop
+     * as soon as it can.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Returns the number of positions visited by the
+     * last search.
+     *
+     * @return nodes
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the number of evaluations of the last
+     * search that were found in the cache.
+     *
+     * @return evalHits
+     */
+    public long getEvalHits() {
+        return evalHits;
+    }
+
+    /**
+     * Returns the number of evaluations of the last
+     * search that were not found in the cache.
+     *
+     * @return evalMisses
+     */
+    public long getEvalMisses() {
+        return evalMisses;
+    }
+
+    /**
+     * Returns the number of nodes of the last search
+     * that had a beta cutoff.
+     *
+     * @return cutoffs
+     */
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    /**
+     * Returns the number of nodes of the last search
+     * whose first move caused the beta cutoff.
+     *
+     * @return firstMoveCutoffs
+     */
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    /**
+     * Returns the depth of the last iteration the
+     * search finished.
+     *
+     * @return completedDepth
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * Returns the score of the position for the side to
+     * move, searched to the depth. Scores at or below alpha
+     * or at or above beta are only bounds.
+     *
+     * @param position as Position
+     * @param depth as int
+     * @param ply as int
+     * @param alpha as int
+     * @param beta as int
+     * @return the score
+     */
+    private int alphaBeta(Position position, int depth, int ply, int alpha, int beta) {
+        if (ply > 0 && bitbase != null) {
+            int score = bitbase.probe(position);
+            boolean decided = score != Bitbase.NONE && (depth <= 0 || !rootInBitbase);
+
+            // Draws are always cut off. Once the game is in the ending, wins and losses are only
+            // cut off at the leaves, so the search still plays towards the mate. A lost position
+            // in check is searched anyway: it may be mate, which the bitbase only scores as a
+            // known loss, so cutting it off would hide the mate from the winning side.
+            if (score == 0 || (decided && (score > 0 || !position.inCheck()))) {
+                return score;
+            }
+        }
+        if (depth <= 0) {
+            return quiescence(position, ply, alpha, beta);
+        }
+        if ((++nodes & (CHECK_INTERVAL - 1)) == 0 && System.nanoTime() > deadline.get()) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+        if (ply > 0 && (isFiftyMoveDraw(position) || position.isRepetition(2))) {
+            return 0;
+        }
+        if (ply >= MAX_PLY) {
+            return evaluate(position);
+        }
+
+        long key = position.getKey();
+        long entry = table.probe(key);
+        int hashMove = Move.NONE;
+        int eval = TranspositionTable.NO_EVAL;
+
+        if (entry != 0) {
+            int score = fromTable(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+
+            hashMove = TranspositionTable.move(entry);
+            eval = TranspositionTable.eval(entry);
+
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth
+                && (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && score >= beta)
+                    || (bound == TranspositionTable.UPPER && score <= alpha))) {
+                return score;
+            }
+        }
+
+        int us = position.getSideToMove();
+        int lastMove = position.getLastMove();
+        boolean inCheck = position.inCheck();
+        boolean pvNode = beta - alpha > 1;
+
+        // Without null windows every node has a full window, so only then is the pass tried in them too.
+        if ((features & NULL_MOVE) != 0 && ((features & PRINCIPAL_VARIATION) == 0 || !pvNode)
+            && !inCheck && depth >= 3 && lastMove != Move.NONE && hasPieces(position, us)) {
+            // The evaluation stored with the entry saves evaluating the position again.
+            if (eval == TranspositionTable.NO_EVAL) {
+                eval = evaluate(position);
+            }
+            if (eval >= beta) {
+                int reduction = 3 + depth / 6;
+
+                position.makeNullMove();
+                int score = -alphaBeta(position, depth - 1 - reduction, ply + 1, -beta, -beta + 1);
+                position.unmakeNullMove();
+
+                if (stopped) {
+                    return 0;
+                }
+                if (score >= beta) {
+                    return score >= MATE - MAX_PLY ? beta : score;
+                }
+            }
+        }
+
+        int counterMove = lastMove == Move.NONE ? Move.NONE
+                        : counterMoves[position.pieceAt(Move.to(lastMove))][Move.to(lastMove)];
+        MovePicker picker = pickers[ply];
+        picker.init(position, hashMove, killers[ply], counterMove, history[us]);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITE;
+        int bestMove = Move.NONE;
+        int searched = 0;
+
+        for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+            searched++;
+            position.makeMove(move);
+
+            int score = 0;
+            boolean fullSearch = true;
+
+            if (searched > 1) {
+                int reduction = 0;
+
+                if ((features & LATE_MOVE_REDUCTIONS) != 0 && depth >= 3 && searched > 3 && !inCheck
+                    && !Move.isCapture(move) && !Move.isPromotion(move) && !position.inCheck()) {
+                    reduction = Math.min(depth - 2, REDUCTIONS[Math.min(depth, 63)][Math.min(searched, 63)]);
+                }
+                if (reduction > 0 || (features & PRINCIPAL_VARIATION) != 0) {
+                    int window = (features & PRINCIPAL_VARIATION) != 0 ? alpha + 1 : beta;
+
+                    score = -alphaBeta(position, depth - 1 - reduction, ply + 1, -window, -alpha);
+                    fullSearch = score > alpha && (reduction > 0 || score < beta);
+                }
+            }
+            if (fullSearch) {
+                score = -alphaBeta(position, depth - 1, ply + 1, -beta, -alpha);
+            }
+            position.unmakeMove();
+
+            if (stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+
+                if (ply == 0) {
+                    rootMove = move;
+                }
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                cutoffs++;
+
+                if (searched == 1) {
+                    firstMoveCutoffs++;
+                }
+                if (!Move.isCapture(move) && !Move.isPromotion(move)) {
+                    updateQuiet(position, move, lastMove, depth, ply);
+                }
+                break;
+            }
+        }
+
+        if (searched == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER
+                  : bestScore > originalAlpha ? TranspositionTable.EXACT
+                  : TranspositionTable.UPPER;
+        table.store(key, bestMove, toTable(bestScore, ply), eval, depth, bound);
+        return bestScore;
+    }
+
+    /**
+     * Returns the score of the position for the side to move
+     * once the captures have been played out. The side to
+     * move can stand pat on the evaluation instead of
+     * capturing, and captures that lose material by static
+     * exchange are skipped. In check, every move is searched,
+     * so mates are found.
+     *
+     * @param position as Position
+     * @param ply as int
+     * @param alpha as int
+     * @param beta as int
+     * @return the score
+     */
+    private int quiescence(Position position, int ply, int alpha, int beta) {
+        if ((++nodes & (CHECK_INTERVAL - 1)) == 0 && System.nanoTime() > deadline.get()) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+        if (isFiftyMoveDraw(position)) {
+            return 0;
+        }
+        if (ply >= MAX_PLY) {
+            return evaluate(position);
+        }
+
+        boolean inCheck = position.inCheck();
+        MovePicker picker = pickers[ply];
+        int bestScore;
+
+        if (inCheck) {
+            picker.init(position, Move.NONE, killers[ply], Move.NONE,
+                        history[position.getSideToMove()]);
+            bestScore = -INFINITE;
+        } else {
+            bestScore = evaluate(position);
+
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+            if (bestScore > alpha) {
+                alpha = bestScore;
+            }
+            picker.initCaptures(position);
+        }
+
+        for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+            position.makeMove(move);
+            int score = -quiescence(position, ply + 1, -beta, -alpha);
+            position.unmakeMove();
+
+            if (stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+
+        if (inCheck && bestScore == -INFINITE) {
+            return -MATE + ply;
+        }
+        return bestScore;
+    }
+
+    /**
+     * Returns the score of the position for the side to move,
+     * from the cache if it is there, otherwise from the
+     * network if there is one, and stores it in the cache.
+     *
+     * @param position as Position
+     * @return the score
+     */
+    private int evaluate(Position position) {
+        long key = position.getKey();
+        int score = evalCache.probe(key);
+
+        if (score != EvalCache.MISS) {
+            evalHits++;
+            return score;
+        }
+        evalMisses++;
+        score = accumulator != null ? accumulator.evaluate(position.getSideToMove())
+                                    : Evaluation.evaluate(position, pawns);
+        score = Math.max(-MATE + MAX_PLY + 1, Math.min(MATE - MAX_PLY - 1, score));
+        evalCache.store(key, score);
+        return score;
+    }
+
+    /**
+     * Returns true if the color has a piece other than pawns
+     * and its king. Null moves are not tried without one,
+     * because in such endgames having to move is often
+     * what loses.
+     *
+     * @param position as Position
+     * @param color as int
+     * @return true or false
+     */
+    private static boolean hasPieces(Position position, int color) {
+        return (position.getColor(color) & ~position.getPieces(color, Position.PAWN)
+                & ~position.getPieces(color, Position.KING)) != 0;
+    }
+
+    /**
+     * Returns true if the game is drawn by the 50 move rule:
+     * 50 moves have passed without a capture or pawn move,
+     * and the side to move is not checkmated. The moves are
+     * only generated when it is in check.
+     *
+     * @param position as Position
+     * @return true if drawn
+     */
+    private boolean isFiftyMoveDraw(Position position) {
+        if (position.getHalfmoveClock() < 100) {
+            return false;
+        }
+        if (!position.inCheck()) {
+            return true;
+        }
+        legalMoves.clear();
+        MoveGenerator.generate(position, legalMoves);
+        return legalMoves.size() > 0;
+    }
+
+    /**
+     * This method remembers a quiet move that caused a cutoff:
+     * it becomes the first killer of the ply, the counter move
+     * to the opponent's last move and its history score grows
+     * with the depth.
+     *
+     * @param position as Position
+     * @param move as int
+     * @param lastMove as int
+     * @param depth as int
+     * @param ply as int
+     */
+    private void updateQuiet(Position position, int move, int lastMove, int depth, int ply) {
+        int[] plyKillers = killers[ply];
+
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        if (lastMove != Move.NONE) {
+            counterMoves[position.pieceAt(Move.to(lastMove))][Move.to(lastMove)] = move;
+        }
+        history[position.getSideToMove()][Move.from(move)][Move.to(move)] += depth * depth;
+    }
+
+    /**
+     * Returns a score to store in the table. Mate scores are
+     * stored as the distance from the node instead of from
+     * the root, so they are right wherever the entry is found.
+     *
+     * @param score as int
+     * @param ply as int
+     * @return the score to store
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -MATE + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * Returns a score read from the table as a distance from
+     * the root.
+     *
+     * @param score as int
+     * @param ply as int
+     * @return the score
+     */
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -MATE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+}
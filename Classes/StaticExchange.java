@@ -0,0 +1,92 @@
+/**
+ * The class StaticExchange works out the material won
+ * or lost by a capture once every piece attacking the
+ * target square has joined in, cheapest piece first.
+ * No moves are played; pieces are taken off a copy of
+ * the occupied squares, so rooks, bishops and queens
+ * lined up behind the capturers are found as they
+ * are uncovered. Pins are not looked at. The caller
+ * hands in the array the gains are worked out in, so
+ * nothing is allocated for each capture.
+ */
+public final class StaticExchange {
+    /** The size of the gains array, one more than the most captures on a square. */
+    public static final int MAX_GAINS = 32;
+
+    /** This class only has static methods. */
+    private StaticExchange() {}
+
+    /**
+     * Returns the material the side to move gains with
+     * the move if both sides keep recapturing on the
+     * target square while it pays to. A negative score
+     * means the capture loses material.
+     *
+     * @param position as Position
+     * @param move as int
+     * @param gains an array of MAX_GAINS ints to work in
+     * @return the score
+     */
+    public static int evaluate(Position position, int move, int[] gains) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int moving = Position.typeOf(position.pieceAt(from));
+        int captured = Move.flags(move) == Move.EN_PASSANT ? Position.PAWN
+                     : position.pieceAt(to) == Position.EMPTY ? Position.EMPTY
+                     : Position.typeOf(position.pieceAt(to));
+        long occupied = position.getOccupied() ^ (1L << from);
+        int side = position.getSideToMove() ^ 1;
+        int depth = 0;
+
+        gains[0] = captured == Position.EMPTY ? 0 : Evaluation.PIECE_VALUES[captured];
+
+        if (Move.isPromotion(move)) {
+            moving = Move.promotionType(move);
+            gains[0] += Evaluation.PIECE_VALUES[moving] - Evaluation.PIECE_VALUES[Position.PAWN];
+        }
+        if (Move.flags(move) == Move.EN_PASSANT) {
+            occupied ^= 1L << (side == Position.BLACK ? to + 8 : to - 8);
+        }
+
+        long attackers = position.attackersTo(to, occupied) & occupied;
+
+        while (depth < MAX_GAINS - 1) {
+            long ours = attackers & position.getColor(side);
+
+            if (ours == 0) {
+                break;
+            }
+
+            int type = Position.PAWN;
+
+            while ((position.getPieces(side, type) & ours) == 0) {
+                type++;
+            }
+
+            long piece = Long.lowestOneBit(position.getPieces(side, type) & ours);
+
+            if (type == Position.KING && (attackers & ~piece & position.getColor(side ^ 1)) != 0) {
+                break;
+            }
+
+            depth++;
+            gains[depth] = Evaluation.PIECE_VALUES[moving] - gains[depth - 1];
+
+            if (Math.max(-gains[depth - 1], gains[depth]) < 0) {
+                depth--;
+                break;
+            }
+
+            moving = type;
+            occupied ^= piece;
+            attackers = position.attackersTo(to, occupied) & occupied;
+            side ^= 1;
+        }
+
+        while (depth > 0) {
+            gains[depth - 1] = -Math.max(-gains[depth - 1], gains[depth]);
+            depth--;
+        }
+        return gains[0];
+    }
+}
@@ -0,0 +1,292 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The class TranspositionTable remembers the results
+ * of searched positions by their Zobrist key. The
+ * entries are kept off the Java heap in direct byte
+ * buffers, so even a table of several gigabytes is
+ * never scanned by the garbage collector.
+ *
+ * Each bucket is 64 bytes and holds 4 entries of
+ * 16 bytes: the key xored with the data, then the
+ * data. No locks are taken. If two threads write the
+ * same entry at once, the xor no longer matches the
+ * key and the torn entry is treated as a miss. The
+ * buffers and the mask that picks a bucket are
+ * published together in one Buckets object, so a
+ * thread never sees the buffers of one size with
+ * the mask of another.
+ */
+public class TranspositionTable {
+    /** The bound of a score that is exact. */
+    public static final int EXACT = 1;
+
+    /** The bound of a score that is at least the stored score. */
+    public static final int LOWER = 2;
+
+    /** The bound of a score that is at most the stored score. */
+    public static final int UPPER = 3;
+
+    /** The number of entries in a bucket. */
+    private static final int BUCKET_ENTRIES = 4;
+
+    /** The size of a bucket in bytes, as a shift. */
+    private static final int BUCKET_SHIFT = 6;
+
+    /** The evaluation stored when the position was not evaluated. */
+    public static final int NO_EVAL = Short.MIN_VALUE;
+
+    /** The number of buckets in one buffer, as a shift. A buffer is 1 GB. */
+    private static final int CHUNK_SHIFT = 24;
+
+    /** The buffers holding the buckets and their mask. */
+    private volatile Buckets buckets;
+
+    /** The age of the current search, stored with each entry. */
+    private volatile int age;
+
+    /**
+     * The class Buckets holds the buffers of a table of
+     * one size and the mask that picks a bucket in them.
+     */
+    private static final class Buckets {
+        /** The buffers holding the buckets. */
+        final ByteBuffer[] chunks;
+
+        /** The number of buckets minus one, used to mask the key. */
+        final long mask;
+
+        /**
+         * The constructor for the class Buckets.
+         *
+         * @param chunks as ByteBuffer[]
+         * @param mask as long
+         */
+        Buckets(ByteBuffer[] chunks, long mask) {
+            this.chunks = chunks;
+            this.mask = mask;
+        }
+
+        /**
+         * Returns the buffer the bucket of the key is in.
+         *
+         * @param key as long
+         * @return the buffer
+         */
+        ByteBuffer chunk(long key) {
+            return chunks[(int) ((key & mask) >>> CHUNK_SHIFT)];
+        }
+
+        /**
+         * Returns the offset in bytes of the bucket of the
+         * key in its buffer.
+         *
+         * @param key as long
+         * @return the offset
+         */
+        int offset(long key) {
+            return (int) (key & mask & ((1L << CHUNK_SHIFT) - 1)) << BUCKET_SHIFT;
+        }
+    }
+
+    /**
+     * The constructor for the class TranspositionTable.
+     *
+     * @param megabytes the size of the table
+     */
+    public TranspositionTable(int megabytes) {
+        resize(megabytes);
+    }
+
+    /**
+     * This method throws away the entries and allocates
+     * a table of the new size. The size is rounded down
+     * to a power of 2 and is at least 1 MB. It must not
+     * be called while a search is using the table.
+     *
+     * @param megabytes the size of the table
+     */
+    public synchronized void resize(int megabytes) {
+        long bytes = Long.highestOneBit(Math.max(1, megabytes)) << 20;
+        long count = bytes >>> BUCKET_SHIFT;
+        int chunkCount = (int) Math.max(1, count >>> CHUNK_SHIFT);
+        long chunkBytes = Math.min(bytes, 1L << (CHUNK_SHIFT + BUCKET_SHIFT));
+        ByteBuffer[] newChunks = new ByteBuffer[chunkCount];
+
+        for (int i = 0; i < chunkCount; i++) {
+            newChunks[i] = ByteBuffer.allocateDirect((int) chunkBytes).order(ByteOrder.nativeOrder());
+        }
+        buckets = new Buckets(newChunks, count - 1);
+    }
+
+    /**
+     * Returns the size of the table in megabytes.
+     *
+     * @return the size
+     */
+    public int getMegabytes() {
+        return (int) (((buckets.mask + 1) << BUCKET_SHIFT) >>> 20);
+    }
+
+    /**
+     * This method sets every entry back to empty.
+     */
+    public synchronized void clear() {
+        for (ByteBuffer chunk : buckets.chunks) {
+            for (int i = 0; i < chunk.capacity(); i += 8) {
+                chunk.putLong(i, 0L);
+            }
+        }
+        age = 0;
+    }
+
+    /**
+     * This method is called at the start of every search so
+     * that entries from older searches are replaced first.
+     */
+    public void newSearch() {
+        age = (age + 1) & 63;
+    }
+
+    /**
+     * Returns the data stored for the key or 0 if the
+     * key is not in the table. The parts of the data are
+     * read with move, score, eval, depth and bound.
+     *
+     * @param key as long
+     * @return the data
+     */
+    public long probe(long key) {
+        Buckets table = buckets;
+        ByteBuffer chunk = table.chunk(key);
+        int offset = table.offset(key);
+
+        for (int i = 0; i < BUCKET_ENTRIES; i++) {
+            int entry = offset + i * 16;
+            long data = chunk.getLong(entry + 8);
+
+            if ((chunk.getLong(entry) ^ data) == key && data != 0) {
+                return data;
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * This method stores the result of a search of a position.
+     * An entry with the same key is replaced, otherwise the
+     * entry of the bucket that is the oldest and shallowest
+     * is. The move and evaluation of an entry with the same
+     * key are kept if no new ones are given.
+     *
+     * @param key as long
+     * @param move as int
+     * @param score as int
+     * @param eval as int
+     * @param depth as int
+     * @param bound as int
+     */
+    public void store(long key, int move, int score, int eval, int depth, int bound) {
+        Buckets table = buckets;
+        ByteBuffer chunk = table.chunk(key);
+        int offset = table.offset(key);
+        int replace = offset;
+        int worst = Integer.MAX_VALUE;
+
+        for (int i = 0; i < BUCKET_ENTRIES; i++) {
+            int entry = offset + i * 16;
+            long data = chunk.getLong(entry + 8);
+
+            if ((chunk.getLong(entry) ^ data) == key && data != 0) {
+                if (move == Move.NONE) {
+                    move = move(data);
+                }
+                if (eval == NO_EVAL) {
+                    eval = eval(data);
+                }
+                replace = entry;
+                break;
+            }
+
+            int value = data == 0 ? Integer.MIN_VALUE
+                      : depth(data) - 8 * ((age - ageOf(data)) & 63);
+
+            if (value < worst) {
+                worst = value;
+                replace = entry;
+            }
+        }
+
+        long data = (move & 0xFFFFL)
+                  | ((score & 0xFFFFL) << 16)
+                  | ((eval & 0xFFFFL) << 32)
+                  | ((long) Math.max(0, Math.min(255, depth)) << 48)
+                  | ((long) bound << 56)
+                  | ((long) age << 58);
+
+        chunk.putLong(replace, key ^ data);
+        chunk.putLong(replace + 8, data);
+    }
+
+    /**
+     * Returns the best move of an entry.
+     *
+     * @param data as long
+     * @return the move
+     */
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    /**
+     * Returns the search score of an entry.
+     *
+     * @param data as long
+     * @return the score
+     */
+    public static int score(long data) {
+        return (short) (data >>> 16);
+    }
+
+    /**
+     * Returns the static evaluation of an entry, or NO_EVAL
+     * if the position was not evaluated.
+     *
+     * @param data as long
+     * @return the evaluation
+     */
+    public static int eval(long data) {
+        return (short) (data >>> 32);
+    }
+
+    /**
+     * Returns the depth an entry was searched to.
+     *
+     * @param data as long
+     * @return the depth
+     */
+    public static int depth(long data) {
+        return (int) ((data >>> 48) & 0xFF);
+    }
+
+    /**
+     * Returns the bound of an entry's score.
+     *
+     * @param data as long
+     * @return EXACT, LOWER or UPPER
+     */
+    public static int bound(long data) {
+        return (int) ((data >>> 56) & 3);
+    }
+
+    /**
+     * Returns the age of the search that stored an entry.
+     *
+     * @param data as long
+     * @return the age
+     */
+    private static int ageOf(long data) {
+        return (int) (data >>> 58);
+    }
+}
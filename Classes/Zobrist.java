@@ -0,0 +1,94 @@
+/**
+ * The class Zobrist holds the random numbers that
+ * are xored together into the key of a position.
+ * Two positions with the same pieces, side to move,
+ * castling rights and en passant file have the
+ * same key.
+ */
+public final class Zobrist {
+    /** The numbers for each piece on each square. */
+    private static final long[][] PIECES = new long[12][64];
+
+    /** The numbers for each set of castling rights. */
+    private static final long[] CASTLING = new long[16];
+
+    /** The numbers for the file of each en passant square. */
+    private static final long[] EN_PASSANT = new long[8];
+
+    /** The number xored in when black is to move. */
+    private static final long SIDE_TO_MOVE;
+
+    /** The state of the random number generator. */
+    private static long seed = 0x2545F4914F6CDD1DL;
+
+    static {
+        for (int piece = 0; piece < 12; piece++) {
+            for (int square = 0; square < 64; square++) {
+                PIECES[piece][square] = nextRandom();
+            }
+        }
+        for (int i = 1; i < CASTLING.length; i++) {
+            CASTLING[i] = nextRandom();
+        }
+        for (int i = 0; i < EN_PASSANT.length; i++) {
+            EN_PASSANT[i] = nextRandom();
+        }
+        SIDE_TO_MOVE = nextRandom();
+    }
+
+    /** This class only has static methods. */
+    private Zobrist() {}
+
+    /**
+     * Returns the number for a piece on a square.
+     *
+     * @param piece as int
+     * @param square as int
+     * @return the number
+     */
+    public static long piece(int piece, int square) {
+        return PIECES[piece][square];
+    }
+
+    /**
+     * Returns the number for a set of castling rights.
+     *
+     * @param castlingRights as int
+     * @return the number
+     */
+    public static long castling(int castlingRights) {
+        return CASTLING[castlingRights];
+    }
+
+    /**
+     * Returns the number for the file of an en passant square.
+     *
+     * @param square as int
+     * @return the number
+     */
+    public static long enPassant(int square) {
+        return EN_PASSANT[square & 7];
+    }
+
+    /**
+     * Returns the number for black to move.
+     *
+     * @return the number
+     */
+    public static long sideToMove() {
+        return SIDE_TO_MOVE;
+    }
+
+    /**
+     * Returns the next number of a xorshift generator. A fixed
+     * seed gives every run the same keys.
+     *
+     * @return a random long
+     */
+    private static long nextRandom() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return seed;
+    }
+}